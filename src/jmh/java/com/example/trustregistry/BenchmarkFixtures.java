@@ -0,0 +1,61 @@
+package com.example.trustregistry;
+
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+
+/**
+ * Deterministic records shared by the benchmarks so runs are comparable across machines and commits.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static TrustRecord trustRecord(int index) {
+        return new TrustRecord(
+                "trust-" + index,
+                "2025-07-29T11:05:00.000Z",
+                "2025-07-29T11:05:00.000Z",
+                null,
+                "did:example:issuer-" + index,
+                "issuer",
+                "VerifiableId",
+                "https://example.com/governance/framework-" + (index % 10),
+                "{\"id\":\"did:example:issuer-" + index + "\",\"verificationMethod\":[]}",
+                "2025-01-01T00:00:00.000Z",
+                "2030-01-01T00:00:00.000Z",
+                "active",
+                "Onboarded by benchmark fixture");
+    }
+
+    public static GovernanceRecord governanceRecord(int index) {
+        return new GovernanceRecord(
+                "gov-" + index,
+                "2025-07-29T11:05:00.000Z",
+                "2025-07-29T11:05:00.000Z",
+                null,
+                "https://example.com/governance/framework-" + index,
+                "Governance framework " + index,
+                "active");
+    }
+
+    public static String trustRecordListJson(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            TrustRecord record = trustRecord(i);
+            json.append("{\"id\":\"").append(record.getId())
+                    .append("\",\"identifier\":\"").append(record.getIdentifier())
+                    .append("\",\"entity_type\":\"").append(record.getEntityType())
+                    .append("\",\"credential_type\":\"").append(record.getCredentialType())
+                    .append("\",\"governance_framework_uri\":\"").append(record.getGovernanceFrameworkURI())
+                    .append("\",\"valid_from_dt\":\"").append(record.getValidFromDt())
+                    .append("\",\"valid_until_dt\":\"").append(record.getValidUntilDt())
+                    .append("\",\"status\":\"").append(record.getStatus())
+                    .append("\"}");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.trustregistry;
+
+import com.example.trustregistry.cache.EvaluateCache;
+import com.example.trustregistry.metrics.LedgerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * FabricGatewayClient that answers from canned chaincode responses instead of a peer, so benchmarks measure
+ * only the code in this service. Responses are keyed by function name; unknown functions fail the way the
+ * chaincode does for a missing record.
+ */
+public class StubFabricGatewayClient extends FabricGatewayClient {
+
+    private final Map<String, byte[]> responses = new HashMap<>();
+
+    public StubFabricGatewayClient() {
+        super(ForkJoinPool.commonPool(), new LedgerMetrics(new SimpleMeterRegistry()), new EvaluateCache());
+    }
+
+    public StubFabricGatewayClient respond(String functionName, String response) {
+        responses.put(functionName, response.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    @Override
+    public String submitTransaction(String functionName, String... args) throws Exception {
+        return new String(answer(functionName, args), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] evaluateTransactionBytes(String functionName, String... args) throws Exception {
+        return answer(functionName, args);
+    }
+
+    private byte[] answer(String functionName, String... args) throws Exception {
+        byte[] response = responses.get(functionName);
+        if (response == null) {
+            throw new Exception("chaincode response 500, the record " + String.join(",", args) + " does not exist");
+        }
+        return response;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.trustregistry.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ledger execution models from {@link ExecutionConfig}: a fixed pool of platform threads
+ * versus one virtual thread per call. Each operation issues {@code inFlight} concurrent calls that block for
+ * a simulated peer round-trip, as the Fabric Gateway SDK does.
+ * <p>
+ * The virtual mode needs a Java 21+ runtime; on older runtimes its setup fails and JMH reports that mode as errored.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+
+    private static final long PEER_LATENCY_MILLIS = 5;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"200", "2000"})
+    public int inFlight;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws Exception {
+        if ("virtual".equals(mode)) {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } else {
+            // Matches the default trustregistry.execution.ledger-threads and Tomcat's default pool size.
+            executor = Executors.newFixedThreadPool(200);
+        }
+    }
+
+    @Benchmark
+    public int concurrentLedgerCalls() {
+        List<CompletableFuture<Integer>> calls = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            int call = i;
+            calls.add(CompletableFuture.supplyAsync(() -> simulatedPeerCall(call), executor));
+        }
+        int completed = 0;
+        for (CompletableFuture<Integer> call : calls) {
+            completed += call.join() >= 0 ? 1 : 0;
+        }
+        return completed;
+    }
+
+    private static int simulatedPeerCall(int call) {
+        try {
+            Thread.sleep(PEER_LATENCY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return call;
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.trustregistry.controller;
+
+import com.example.trustregistry.BenchmarkFixtures;
+import com.example.trustregistry.StubFabricGatewayClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Full Spring MVC dispatch through {@link TrustRegistryController} against a stub gateway client returning
+ * canned chaincode bytes, so the numbers cover routing, argument binding, the controller and message conversion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ControllerDispatchBenchmark {
+
+    @Param({"10", "1000"})
+    public int listSize;
+
+    private MockMvc mockMvc;
+    private String trustRecordJson;
+    private String allTrustRecordsEtag;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        trustRecordJson = objectMapper.writeValueAsString(BenchmarkFixtures.trustRecord(1));
+        StubFabricGatewayClient gatewayClient = new StubFabricGatewayClient()
+                .respond("ReadTrustRecord", trustRecordJson)
+                .respond("GetAllTrustRecords", BenchmarkFixtures.trustRecordListJson(listSize))
+                .respond("CreateTrustRecord", "trust-1");
+        mockMvc = MockMvcBuilders.standaloneSetup(ControllerFixture.newController(gatewayClient, objectMapper)).build();
+        allTrustRecordsEtag = mockMvc.perform(get("/api/trustregistry/trust")).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Benchmark
+    public MvcResult readTrustRecord() throws Exception {
+        return mockMvc.perform(get("/api/trustregistry/trust/trust-1")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult readMissingTrustRecord() throws Exception {
+        return mockMvc.perform(get("/api/trustregistry/governance/unknown")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getAllTrustRecords() throws Exception {
+        return mockMvc.perform(get("/api/trustregistry/trust")).andReturn();
+    }
+
+    /**
+     * A poll that already has the current list: answered with 304 and no body.
+     */
+    @Benchmark
+    public MvcResult getAllTrustRecordsNotModified() throws Exception {
+        return mockMvc.perform(get("/api/trustregistry/trust")
+                .header(HttpHeaders.IF_NONE_MATCH, allTrustRecordsEtag)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createTrustRecord() throws Exception {
+        return mockMvc.perform(post("/api/trustregistry/trust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(trustRecordJson)).andReturn();
+    }
+}
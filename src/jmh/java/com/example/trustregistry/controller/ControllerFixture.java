@@ -0,0 +1,58 @@
+package com.example.trustregistry.controller;
+
+import com.example.trustregistry.FabricGatewayClient;
+import com.example.trustregistry.batch.TrustRecordBatchSubmitter;
+import com.example.trustregistry.cache.EvaluateCache;
+import com.example.trustregistry.feed.ChangeFeed;
+import com.example.trustregistry.idempotency.IdempotencyStore;
+import com.example.trustregistry.tx.CommitStatusTracker;
+import com.example.trustregistry.validation.RecordValidator;
+import com.example.trustregistry.view.LedgerView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Wires a {@link TrustRegistryController} outside Spring, with the ledger view empty so reads are not answered
+ * locally. Benchmarks disable the evaluate cache so every request reaches the gateway client.
+ */
+public final class ControllerFixture {
+
+    private ControllerFixture() {
+    }
+
+    static TrustRegistryController newController(FabricGatewayClient gatewayClient, ObjectMapper objectMapper) {
+        return newController(gatewayClient, objectMapper, false);
+    }
+
+    /**
+     * @param cacheEnabled Whether the evaluate cache is on, with the application's default size and TTL.
+     */
+    public static TrustRegistryController newController(FabricGatewayClient gatewayClient, ObjectMapper objectMapper,
+                                                        boolean cacheEnabled) {
+        EvaluateCache evaluateCache = new EvaluateCache();
+        ReflectionTestUtils.setField(evaluateCache, "enabled", cacheEnabled);
+        ReflectionTestUtils.setField(evaluateCache, "maxSize", 10000L);
+        ReflectionTestUtils.setField(evaluateCache, "ttlSeconds", 30L);
+        evaluateCache.init();
+
+        RecordValidator recordValidator = new RecordValidator(objectMapper);
+        ReflectionTestUtils.setField(recordValidator, "enabled", true);
+        ReflectionTestUtils.setField(recordValidator, "trustStatusValues", new String[] {"Active", "Inactive", "Revoked", "Suspended"});
+        ReflectionTestUtils.setField(recordValidator, "governanceStatusValues", new String[] {"Active", "Inactive"});
+        ReflectionTestUtils.setField(recordValidator, "maxFieldLength", 1024);
+        ReflectionTestUtils.setField(recordValidator, "maxDidDocumentLength", 65536);
+        recordValidator.init();
+
+        IdempotencyStore idempotencyStore = new IdempotencyStore();
+        ReflectionTestUtils.setField(idempotencyStore, "enabled", true);
+        ReflectionTestUtils.setField(idempotencyStore, "maxKeys", 10000L);
+        ReflectionTestUtils.setField(idempotencyStore, "ttlSeconds", 3600L);
+        idempotencyStore.init();
+
+        TrustRecordBatchSubmitter batchSubmitter = new TrustRecordBatchSubmitter(gatewayClient);
+        ReflectionTestUtils.setField(batchSubmitter, "bulkFunction", "");
+
+        return new TrustRegistryController(gatewayClient, objectMapper, evaluateCache, new LedgerView(),
+                batchSubmitter, new CommitStatusTracker(), recordValidator, idempotencyStore, new ChangeFeed(objectMapper));
+    }
+}
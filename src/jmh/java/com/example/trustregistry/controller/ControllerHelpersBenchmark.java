@@ -0,0 +1,62 @@
+package com.example.trustregistry.controller;
+
+import com.example.trustregistry.StubFabricGatewayClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request helpers of {@link TrustRegistryController} that run on every call, including error paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ControllerHelpersBenchmark {
+
+    private static final String CHAINCODE_ERROR =
+            "rpc error: code = Unknown desc = evaluate call to endorser returned error: chaincode response 500, "
+                    + "the trust record trust-42 does not exist";
+    private static final String PLAIN_ERROR = "io exception: connection reset by peer while reading response";
+
+    private TrustRegistryController controller;
+
+    @Setup
+    public void setUp() {
+        controller = ControllerFixture.newController(new StubFabricGatewayClient(), Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Benchmark
+    public String extractChaincodeErrorMessageMatch() {
+        return controller.extractChaincodeErrorMessage(CHAINCODE_ERROR);
+    }
+
+    @Benchmark
+    public String extractChaincodeErrorMessageNoMatch() {
+        return controller.extractChaincodeErrorMessage(PLAIN_ERROR);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> createErrorResponse() {
+        return controller.createErrorResponse(HttpStatus.NOT_FOUND, "Record not found", CHAINCODE_ERROR, "correlation-id");
+    }
+
+    @Benchmark
+    public String generateCorrelationId() {
+        return controller.generateCorrelationId();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.trustregistry.gateway;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail latency of evaluate calls against a slow-peer stub, with and without {@link Hedger}. The stub answers in
+ * {@link #FAST_MILLIS} most of the time and stalls for {@link #STALL_MILLIS} on {@code stallPercent}% of calls,
+ * independently per attempt, like a peer with occasional GC pauses or a congested channel.
+ * <p>
+ * Run in sample mode and compare the p0.99 rows, e.g.
+ * {@code -Djmh.args="HedgedReadBenchmark"}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class HedgedReadBenchmark {
+
+    private static final long FAST_MILLIS = 2;
+    private static final long STALL_MILLIS = 100;
+    private static final String FUNCTION = "ReadTrustRecord";
+    private static final byte[] RESULT = "{\"id\":\"trust-1\"}".getBytes();
+
+    @Param({"off", "on"})
+    public String hedging;
+
+    @Param({"3"})
+    public int stallPercent;
+
+    private ExecutorService executor;
+    private Hedger hedger;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "hedge-bench");
+            thread.setDaemon(true);
+            return thread;
+        });
+        hedger = new Hedger(executor, 0.95, 1, 256, 1000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public byte[] evaluate() throws Exception {
+        if ("off".equals(hedging)) {
+            return slowPeer();
+        }
+        return hedger.call(FUNCTION, hedge -> slowPeer(), () -> { });
+    }
+
+    private byte[] slowPeer() throws InterruptedException {
+        long start = System.nanoTime();
+        boolean stall = ThreadLocalRandom.current().nextInt(100) < stallPercent;
+        // Interruptible, like a cancelled gRPC call, so the losing attempt of a hedge stops early.
+        Thread.sleep(stall ? STALL_MILLIS : FAST_MILLIS);
+        hedger.record(FUNCTION, System.nanoTime() - start);
+        return RESULT;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.trustregistry.loadtest;
+
+import com.example.trustregistry.FabricGatewayClient;
+import com.example.trustregistry.cache.EvaluateCache;
+import com.example.trustregistry.metrics.LedgerMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process stand-in for the trust registry chaincode behind the {@link FabricGatewayClient} API. World state is
+ * two sorted in-memory maps of record JSON; evaluates wait for a sampled peer latency, submits for a sampled
+ * endorsement latency and then a commit latency, after which the write becomes visible. Failures use the same
+ * "chaincode response 500, ..." messages as the real chaincode, so the controller maps them to the same statuses.
+ */
+class ChaincodeSimulator extends FabricGatewayClient {
+
+    private final ObjectMapper objectMapper;
+    private final LatencyDistribution evaluateLatency;
+    private final LatencyDistribution endorseLatency;
+    private final LatencyDistribution commitLatency;
+    private final SplittableRandom seedSource;
+    private final ThreadLocal<SplittableRandom> random;
+
+    // Keyed like the chaincode's world state: trust records by ID, governance records by identifier.
+    private final NavigableMap<String, byte[]> trustRecords = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, byte[]> governanceRecords = new ConcurrentSkipListMap<>();
+
+    ChaincodeSimulator(ObjectMapper objectMapper, LatencyDistribution evaluateLatency,
+                       LatencyDistribution endorseLatency, LatencyDistribution commitLatency, long seed) {
+        super(ForkJoinPool.commonPool(), new LedgerMetrics(new SimpleMeterRegistry()), new EvaluateCache());
+        this.objectMapper = objectMapper;
+        this.evaluateLatency = evaluateLatency;
+        this.endorseLatency = endorseLatency;
+        this.commitLatency = commitLatency;
+        this.seedSource = new SplittableRandom(seed);
+        this.random = ThreadLocal.withInitial(this::splitRandom);
+    }
+
+    private synchronized SplittableRandom splitRandom() {
+        return seedSource.split();
+    }
+
+    /**
+     * Writes a record straight into the world state, without latency, to set up a run.
+     */
+    void preload(String functionName, Object record) throws Exception {
+        apply(functionName, objectMapper.writeValueAsString(record));
+    }
+
+    int trustRecordCount() {
+        return trustRecords.size();
+    }
+
+    @Override
+    public String submitTransaction(String functionName, String... args) throws Exception {
+        pause(endorseLatency);
+        if (args.length != 1) {
+            throw new Exception("chaincode response 500, " + functionName + " expects 1 argument");
+        }
+        // Validate before the commit wait, as endorsement would, but write only after it.
+        JsonNode record = objectMapper.readTree(args[0]);
+        check(functionName, record);
+        pause(commitLatency);
+        return apply(functionName, args[0]);
+    }
+
+    @Override
+    public byte[] evaluateTransactionBytes(String functionName, String... args) throws Exception {
+        pause(evaluateLatency);
+        switch (functionName) {
+            case "ReadTrustRecord":
+                return read(trustRecords, "trust record", args[0]);
+            case "ReadGovernanceRecord":
+                return read(governanceRecords, "governance record", args[0]);
+            case "GetAllTrustRecords":
+                return array(trustRecords, null);
+            case "GetAllGovernanceRecords":
+                return array(governanceRecords, null);
+            case "GetTrustRecordsByCredentialType":
+                return array(trustRecords, args[0]);
+            default:
+                throw new Exception("chaincode response 500, function " + functionName + " is not implemented by the simulator");
+        }
+    }
+
+    private void check(String functionName, JsonNode record) throws Exception {
+        switch (functionName) {
+            case "CreateGovernanceRecord":
+            case "InitLedger":
+                if (governanceRecords.containsKey(record.path("identifier").asText())) {
+                    throw new Exception("chaincode response 500, governance record "
+                            + record.path("identifier").asText() + " already exists");
+                }
+                break;
+            case "CreateTrustRecord":
+                if (!governanceRecords.containsKey(record.path("identifier").asText())) {
+                    throw new Exception("chaincode response 500, governance record not found for identifier "
+                            + record.path("identifier").asText());
+                }
+                break;
+            default:
+                throw new Exception("chaincode response 500, function " + functionName + " is not implemented by the simulator");
+        }
+    }
+
+    private String apply(String functionName, String json) throws Exception {
+        JsonNode record = objectMapper.readTree(json);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        if ("CreateTrustRecord".equals(functionName)) {
+            String id = record.path("id").asText();
+            trustRecords.put(id, bytes);
+            return id;
+        }
+        String identifier = record.path("identifier").asText();
+        governanceRecords.put(identifier, bytes);
+        return identifier;
+    }
+
+    private static byte[] read(Map<String, byte[]> state, String type, String key) throws Exception {
+        byte[] record = state.get(key);
+        if (record == null) {
+            throw new Exception("chaincode response 500, the " + type + " " + key + " does not exist");
+        }
+        return record;
+    }
+
+    /**
+     * Concatenates the stored JSON into an array, as the chaincode's range queries do, optionally keeping only
+     * records of one credential type.
+     */
+    private byte[] array(NavigableMap<String, byte[]> state, String credentialType) throws Exception {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.write('[');
+        boolean first = true;
+        for (byte[] record : state.values()) {
+            if (credentialType != null
+                    && !credentialType.equals(objectMapper.readTree(record).path("credential_type").asText())) {
+                continue;
+            }
+            if (!first) {
+                json.write(',');
+            }
+            json.write(record);
+            first = false;
+        }
+        json.write(']');
+        return json.toByteArray();
+    }
+
+    private void pause(LatencyDistribution latency) {
+        long deadline = System.nanoTime() + latency.sampleNanos(random.get());
+        // parkNanos may return early; keep waiting until the sampled latency has passed.
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.trustregistry.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Log-normal latency described by its median and 99th percentile, which is how peer and orderer latencies are
+ * usually quoted and matches their long right tail. Written {@code median/p99} in milliseconds, e.g. {@code 20/80};
+ * {@code 0/0} means no delay.
+ */
+final class LatencyDistribution {
+
+    // Standard normal quantile at 0.99.
+    private static final double Z_99 = 2.326348;
+
+    private final double medianNanos;
+    private final double sigma;
+
+    private LatencyDistribution(double medianMillis, double p99Millis) {
+        if (medianMillis < 0 || p99Millis < medianMillis) {
+            throw new IllegalArgumentException("Latency must be median/p99 with 0 <= median <= p99");
+        }
+        this.medianNanos = medianMillis * 1_000_000;
+        this.sigma = medianMillis == 0 ? 0 : Math.log(p99Millis / medianMillis) / Z_99;
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Latency must be median/p99 in milliseconds: " + spec);
+        }
+        return new LatencyDistribution(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]));
+    }
+
+    long sampleNanos(SplittableRandom random) {
+        if (medianNanos == 0) {
+            return 0;
+        }
+        return (long) (medianNanos * Math.exp(sigma * gaussian(random)));
+    }
+
+    // Box-Muller; SplittableRandom has no nextGaussian on Java 17.
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.trustregistry.loadtest;
+
+import com.example.trustregistry.BenchmarkFixtures;
+import com.example.trustregistry.controller.ControllerFixture;
+import com.example.trustregistry.controller.CorrelationIdFilter;
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Open-model load test of the real {@code TrustRegistryController} against {@link ChaincodeSimulator}, replacing
+ * the Locust run that needed a Fabric test network.
+ * <p>
+ * Requests arrive as a Poisson process at the configured rate, independent of how fast earlier ones complete, and
+ * run on a fixed worker pool standing in for the servlet container's threads. Latency is measured from each
+ * request's scheduled arrival, so time spent queued behind a saturated pool counts (no coordinated omission).
+ * The arrival times, operation mix and simulated ledger latencies all come from one seed, so two runs with the
+ * same settings offer the same load.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="rate=500 duration=60"}.
+ * Settings (defaults in brackets): rate [200] requests/s, duration [30] and warmup [5] seconds, workers [200],
+ * seed [42], preload [1000] trust and governance records, cache [true] for the evaluate cache, mix of operations
+ * with weights [the Locust task weights], and evaluate-latency [2/10], endorse-latency [20/80] and
+ * commit-latency [300/1500] as median/p99 milliseconds.
+ * <p>
+ * Prints throughput and latency percentiles per operation and writes each HdrHistogram percentile distribution to
+ * {@code target/loadtest/<operation>.hgrm}.
+ */
+public final class LoadTest {
+
+    private static final String API = "/api/trustregistry";
+
+    enum Operation {
+        CREATE_TRUST("create-trust"),
+        READ_GOVERNANCE("read-governance"),
+        READ_TRUST("read-trust"),
+        LIST_GOVERNANCE("list-governance"),
+        LIST_TRUST("list-trust"),
+        LIST_BY_CREDENTIAL_TYPE("list-by-credential-type");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        static Operation of(String label) {
+            for (Operation operation : values()) {
+                if (operation.label.equals(label)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation " + label);
+        }
+    }
+
+    private final Map<String, String> settings;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicLong createdTrustRecords = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private MockMvc mockMvc;
+    private int preload;
+    private Operation[] weightedOperations;
+
+    private LoadTest(Map<String, String> settings) {
+        this.settings = settings;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("rate", "200");
+        settings.put("duration", "30");
+        settings.put("warmup", "5");
+        settings.put("workers", "200");
+        settings.put("seed", "42");
+        settings.put("preload", "1000");
+        settings.put("cache", "true");
+        settings.put("mix", "create-trust:3,read-governance:2,read-trust:2,list-governance:1,list-trust:1");
+        settings.put("evaluate-latency", "2/10");
+        settings.put("endorse-latency", "20/80");
+        settings.put("commit-latency", "300/1500");
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2 || !settings.containsKey(parts[0])) {
+                throw new IllegalArgumentException("Expected one of " + settings.keySet() + " as key=value, got " + arg);
+            }
+            settings.put(parts[0], parts[1]);
+        }
+        new LoadTest(settings).run();
+        // The controller's executors use non-daemon threads.
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        long seed = Long.parseLong(settings.get("seed"));
+        ChaincodeSimulator simulator = new ChaincodeSimulator(objectMapper,
+                LatencyDistribution.parse(settings.get("evaluate-latency")),
+                LatencyDistribution.parse(settings.get("endorse-latency")),
+                LatencyDistribution.parse(settings.get("commit-latency")), seed);
+        preload = Integer.parseInt(settings.get("preload"));
+        for (int i = 0; i < preload; i++) {
+            TrustRecord trustRecord = BenchmarkFixtures.trustRecord(i);
+            simulator.preload("CreateGovernanceRecord", governanceRecordFor(trustRecord.getIdentifier(), i));
+            simulator.preload("CreateTrustRecord", trustRecord);
+        }
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(ControllerFixture.newController(simulator, objectMapper,
+                        Boolean.parseBoolean(settings.get("cache"))))
+                .addFilters(new CorrelationIdFilter())
+                .build();
+        weightedOperations = parseMix(settings.get("mix"));
+
+        System.out.println("Load test settings: " + settings);
+        double rate = Double.parseDouble(settings.get("rate"));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(settings.get("warmup")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(settings.get("duration")));
+        int workers = Integer.parseInt(settings.get("workers"));
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        boolean measuring = warmupNanos == 0;
+        long arrival = start;
+        while (arrival < end) {
+            if (!measuring && arrival >= measureFrom) {
+                // Discard what was recorded during warmup.
+                recorders.values().forEach(Recorder::reset);
+                errors.values().forEach(LongAdder::reset);
+                measuring = true;
+            }
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            MockHttpServletRequestBuilder request = request(operation, random);
+            long scheduled = arrival;
+            inFlight.incrementAndGet();
+            pool.execute(() -> perform(operation, request, scheduled));
+            // Exponential inter-arrival times make a Poisson process.
+            arrival += (long) (-Math.log(1.0 - random.nextDouble()) / rate * 1_000_000_000L);
+        }
+        long elapsedNanos = System.nanoTime() - measureFrom;
+        pool.shutdown();
+        if (!pool.awaitTermination(60, TimeUnit.SECONDS)) {
+            System.out.println("Warning: " + inFlight.get() + " request(s) still running after 60 s; not included");
+        }
+        report(durationNanos, elapsedNanos, simulator);
+    }
+
+    private void perform(Operation operation, MockHttpServletRequestBuilder request, long scheduledNanos) {
+        try {
+            int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+            if (status >= 400) {
+                errors.get(operation).increment();
+            }
+        } catch (Exception e) {
+            errors.get(operation).increment();
+        } finally {
+            recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos));
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private MockHttpServletRequestBuilder request(Operation operation, SplittableRandom random) throws IOException {
+        int existing = random.nextInt(preload);
+        switch (operation) {
+            case CREATE_TRUST:
+                TrustRecord record = BenchmarkFixtures.trustRecord(existing);
+                record.setId("loadtest-" + createdTrustRecords.incrementAndGet());
+                return post(API + "/trust").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(record));
+            case READ_GOVERNANCE:
+                return get(API + "/governance/" + BenchmarkFixtures.trustRecord(existing).getIdentifier());
+            case READ_TRUST:
+                return get(API + "/trust/" + BenchmarkFixtures.trustRecord(existing).getId());
+            case LIST_GOVERNANCE:
+                return get(API + "/governance");
+            case LIST_TRUST:
+                return get(API + "/trust");
+            case LIST_BY_CREDENTIAL_TYPE:
+                return get(API + "/trust/credential_type/" + BenchmarkFixtures.trustRecord(existing).getCredentialType());
+            default:
+                throw new IllegalStateException("Unhandled operation " + operation);
+        }
+    }
+
+    private static GovernanceRecord governanceRecordFor(String identifier, int index) {
+        GovernanceRecord record = BenchmarkFixtures.governanceRecord(index);
+        record.setIdentifier(identifier);
+        return record;
+    }
+
+    /**
+     * Expands {@code operation:weight,...} into an array with each operation repeated by its weight, so a
+     * uniform pick from it follows the mix.
+     */
+    private static Operation[] parseMix(String mix) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                weighted.add(Operation.of(parts[0]));
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The mix must contain at least one operation");
+        }
+        return weighted.toArray(new Operation[0]);
+    }
+
+    private void report(long durationNanos, long elapsedNanos, ChaincodeSimulator simulator) throws IOException {
+        Path outputDirectory = Paths.get("target", "loadtest");
+        Files.createDirectories(outputDirectory);
+        double seconds = Math.max(elapsedNanos, durationNanos) / 1e9;
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+
+        PrintStream out = System.out;
+        out.printf("%n%-24s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long operationErrors = errors.get(operation).sum();
+            printRow(out, operation.label, histogram, seconds, operationErrors);
+            writeDistribution(outputDirectory.resolve(operation.label + ".hgrm"), histogram);
+            all.add(histogram);
+            allErrors += operationErrors;
+        }
+        printRow(out, "all", all, seconds, allErrors);
+        writeDistribution(outputDirectory.resolve("all.hgrm"), all);
+        out.printf("%nWorld state after the run: %d trust records. Percentile distributions written to %s%n",
+                simulator.trustRecordCount(), outputDirectory.toAbsolutePath());
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram histogram, double seconds, long errors) {
+        out.printf("%-24s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label, histogram.getTotalCount(), histogram.getTotalCount() / seconds, errors,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void writeDistribution(Path path, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            // Microsecond samples, reported in milliseconds.
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
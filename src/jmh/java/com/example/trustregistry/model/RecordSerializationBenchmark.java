@@ -0,0 +1,74 @@
+package com.example.trustregistry.model;
+
+import com.example.trustregistry.BenchmarkFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the ledger model classes with the ObjectMapper configuration Spring Boot uses,
+ * with and without the Blackbird module registered by {@code JacksonConfig}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RecordSerializationBenchmark {
+
+    @Param({"reflection", "blackbird"})
+    public String accessors;
+
+    private ObjectMapper objectMapper;
+    private TrustRecord trustRecord;
+    private GovernanceRecord governanceRecord;
+    private String trustRecordJson;
+    private String governanceRecordJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(accessors)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        trustRecord = BenchmarkFixtures.trustRecord(1);
+        governanceRecord = BenchmarkFixtures.governanceRecord(1);
+        trustRecordJson = objectMapper.writeValueAsString(trustRecord);
+        governanceRecordJson = objectMapper.writeValueAsString(governanceRecord);
+    }
+
+    @Benchmark
+    public String serializeTrustRecord() throws Exception {
+        return objectMapper.writeValueAsString(trustRecord);
+    }
+
+    @Benchmark
+    public TrustRecord deserializeTrustRecord() throws Exception {
+        return objectMapper.readValue(trustRecordJson, TrustRecord.class);
+    }
+
+    @Benchmark
+    public String serializeGovernanceRecord() throws Exception {
+        return objectMapper.writeValueAsString(governanceRecord);
+    }
+
+    @Benchmark
+    public GovernanceRecord deserializeGovernanceRecord() throws Exception {
+        return objectMapper.readValue(governanceRecordJson, GovernanceRecord.class);
+    }
+}
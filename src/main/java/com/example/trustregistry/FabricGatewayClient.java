@@ -1,11 +1,24 @@
 package com.example.trustregistry;
 
+import com.example.trustregistry.cache.EvaluateCache;
+import com.example.trustregistry.gateway.AdaptiveConcurrencyLimiter;
+import com.example.trustregistry.gateway.CircuitBreaker;
+import com.example.trustregistry.gateway.CommitFailedException;
+import com.example.trustregistry.gateway.CredentialWatcher;
+import com.example.trustregistry.gateway.Hedger;
+import com.example.trustregistry.gateway.LedgerOverloadedException;
+import com.example.trustregistry.gateway.PeerConnection;
+import com.example.trustregistry.gateway.PeerConnectionPool;
+import com.example.trustregistry.gateway.PinnedSubmittedTransaction;
+import com.example.trustregistry.gateway.SingleFlight;
+import com.example.trustregistry.metrics.LedgerMetrics;
+import io.grpc.CallOptions;
 import io.grpc.Grpc;
 import io.grpc.ManagedChannel;
+import io.grpc.Status;
 import io.grpc.TlsChannelCredentials;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import org.hyperledger.fabric.client.Contract;
 import org.hyperledger.fabric.client.EndorseException;
 import org.hyperledger.fabric.client.Gateway;
 import org.hyperledger.fabric.client.Hash;
@@ -15,9 +28,13 @@ import org.hyperledger.fabric.client.identity.Signer;
 import org.hyperledger.fabric.client.identity.Signers;
 import org.hyperledger.fabric.client.identity.X509Identity;
 import org.hyperledger.fabric.client.Network;
+import org.hyperledger.fabric.client.SubmittedTransaction;
+import org.hyperledger.fabric.client.Transaction;
 import org.hyperledger.fabric.client.GatewayException;
+import org.hyperledger.fabric.protos.common.BlockchainInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -28,9 +45,22 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.InvalidKeyException;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 @Component
@@ -56,19 +86,139 @@ public class FabricGatewayClient {
     @Value("${fabric.network.override-authority}")
     private String overrideAuthority;
 
-    private Gateway gateway;
-    private Network network;
-    private Contract contract;
+    // Comma-separated endpoint|override-authority[|tls-ca-path]; empty means just peer-endpoint.
+    @Value("${fabric.network.peer-endpoints:}")
+    private String peerEndpoints;
+
+    @Value("${fabric.network.channels-per-peer:1}")
+    private int channelsPerPeer;
+
+    @Value("${fabric.network.eject-after-failures:5}")
+    private int ejectAfterFailures;
+
+    @Value("${fabric.network.eject-duration-ms:10000}")
+    private long ejectDurationMs;
+
+    @Value("${fabric.reload.enabled:true}")
+    private boolean reloadEnabled;
+
+    @Value("${fabric.reload.debounce-ms:2000}")
+    private long reloadDebounceMs;
+
+    @Value("${fabric.reload.warmup-ms:5000}")
+    private long reloadWarmupMs;
+
+    @Value("${fabric.reload.drain-timeout-ms:30000}")
+    private long reloadDrainTimeoutMs;
+
+    @Value("${fabric.evaluate.single-flight:true}")
+    private boolean singleFlight;
+
+    @Value("${fabric.deadline.evaluate-ms:5000}")
+    private long evaluateDeadlineMs;
+
+    @Value("${fabric.deadline.endorse-ms:15000}")
+    private long endorseDeadlineMs;
+
+    @Value("${fabric.deadline.submit-ms:5000}")
+    private long submitDeadlineMs;
+
+    @Value("${fabric.deadline.commit-status-ms:60000}")
+    private long commitStatusDeadlineMs;
+
+    // Comma-separated function:millis; replaces the evaluate or endorse deadline for that chaincode function.
+    @Value("${fabric.deadline.functions:}")
+    private String functionDeadlineOverrides;
+
+    @Value("${fabric.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${fabric.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${fabric.hedge.min-delay-ms:10}")
+    private long hedgeMinDelayMs;
+
+    @Value("${fabric.hedge.window:256}")
+    private int hedgeWindow;
+
+    // Hedges in flight at once; past this a slow call is not duplicated.
+    @Value("${fabric.hedge.max-concurrent:32}")
+    private int hedgeMaxConcurrent;
+
+    @Value("${fabric.limiter.enabled:true}")
+    private boolean limiterEnabled;
+
+    @Value("${fabric.limiter.evaluate.initial-limit:50}")
+    private int evaluateInitialLimit;
+
+    @Value("${fabric.limiter.evaluate.max-limit:500}")
+    private int evaluateMaxLimit;
+
+    @Value("${fabric.limiter.evaluate.latency-threshold-ms:1000}")
+    private long evaluateLatencyThresholdMs;
+
+    @Value("${fabric.limiter.submit.initial-limit:20}")
+    private int submitInitialLimit;
+
+    @Value("${fabric.limiter.submit.max-limit:200}")
+    private int submitMaxLimit;
+
+    @Value("${fabric.limiter.submit.latency-threshold-ms:5000}")
+    private long submitLatencyThresholdMs;
+
+    @Value("${fabric.limiter.min-limit:2}")
+    private int minLimit;
+
+    @Value("${fabric.limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${fabric.limiter.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private final Executor ledgerExecutor;
+    private final LedgerMetrics ledgerMetrics;
+    private final EvaluateCache evaluateCache;
+
+    // Replaced as a whole when the credentials are reloaded; each call works on the pool it read.
+    private volatile PeerConnectionPool connectionPool;
+    // Kept across reloads, so an endpoint's health is not forgotten when its connections are rebuilt.
+    private final Map<String, CircuitBreaker> circuitBreakers = new HashMap<>();
+    private List<PeerTarget> peerTargets;
+    private CredentialWatcher credentialWatcher;
+    private final SingleFlight<byte[]> evaluateFlights = new SingleFlight<>();
+    private Hedger hedger;
+    private ExecutorService hedgeExecutor;
+    private AdaptiveConcurrencyLimiter evaluateLimiter;
+    private AdaptiveConcurrencyLimiter submitLimiter;
+    private Map<String, Long> functionDeadlines = Map.of();
 
     private Path cryptoBasePath;
     private Path certDirPath;
     Path keyDirPath;
     private Path tlsCertPath;
 
+    public FabricGatewayClient(@Qualifier("ledgerExecutor") Executor ledgerExecutor, LedgerMetrics ledgerMetrics,
+                               EvaluateCache evaluateCache) {
+        this.ledgerExecutor = ledgerExecutor;
+        this.ledgerMetrics = ledgerMetrics;
+        this.evaluateCache = evaluateCache;
+    }
+
     @PostConstruct
     public void init() throws Exception {
         logger.info("Initializing Fabric Gateway Client...");
 
+        functionDeadlines = parseFunctionDeadlines(functionDeadlineOverrides);
+        if (limiterEnabled) {
+            evaluateLimiter = new AdaptiveConcurrencyLimiter(evaluateInitialLimit, minLimit, evaluateMaxLimit,
+                    evaluateLatencyThresholdMs, backoffRatio);
+            submitLimiter = new AdaptiveConcurrencyLimiter(submitInitialLimit, minLimit, submitMaxLimit,
+                    submitLatencyThresholdMs, backoffRatio);
+            ledgerMetrics.bindLimiter(LedgerMetrics.EVALUATE, evaluateLimiter);
+            ledgerMetrics.bindLimiter(LedgerMetrics.SUBMIT, submitLimiter);
+        }
+
         // Resolve paths
         cryptoBasePath = Paths.get(cryptoBasePathString);
         certDirPath = cryptoBasePath.resolve(Paths.get("users/User1@org1.example.com/msp/signcerts"));
@@ -91,37 +241,194 @@ public class FabricGatewayClient {
             throw new IOException("TLS Certificate file not found or not a file: " + tlsCertPath);
         }
 
-        // The gRPC client connection should be shared by all Gateway connections to this endpoint.
-        ManagedChannel channel = newGrpcConnection();
+        peerTargets = resolvePeerTargets();
+        connectionPool = newConnectionPool();
+        ledgerMetrics.bindConnectionPool(() -> connectionPool);
+        // Hedging needs somewhere else to send the duplicate.
+        if (hedgeEnabled && connectionPool.getConnections().size() > 1) {
+            AtomicInteger hedgeThreads = new AtomicInteger();
+            hedgeExecutor = new ThreadPoolExecutor(0, hedgeMaxConcurrent, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "ledger-hedge-" + hedgeThreads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            long maxDeadlineMs = functionDeadlines.values().stream().mapToLong(Long::longValue).max().orElse(0);
+            hedger = new Hedger(hedgeExecutor, hedgePercentile, hedgeMinDelayMs, hedgeWindow,
+                    Math.max(evaluateDeadlineMs, maxDeadlineMs));
+        }
+        if (reloadEnabled) {
+            credentialWatcher = new CredentialWatcher(credentialDirectories(), reloadDebounceMs, this::reloadCredentials);
+            credentialWatcher.start();
+        }
+        logger.info("Fabric Gateway Client initialized successfully.");
+    }
+
+    /**
+     * Reads the identity, signing key and TLS CAs from disk and opens the full set of peer connections with them.
+     */
+    private PeerConnectionPool newConnectionPool() throws Exception {
+        Identity identity = newIdentity();
+        Signer signer = newSigner();
 
-        Gateway.Builder builder = Gateway.newInstance()
-                .identity(newIdentity())
-                .signer(newSigner())
-                .hash(Hash.SHA256)
-                .connection(channel)
-                .evaluateOptions(options -> options.withDeadlineAfter(5, TimeUnit.SECONDS))
-                .endorseOptions(options -> options.withDeadlineAfter(15, TimeUnit.SECONDS))
-                .submitOptions(options -> options.withDeadlineAfter(5, TimeUnit.SECONDS))
-                .commitStatusOptions(options -> options.withDeadlineAfter(1, TimeUnit.MINUTES));
+        List<PeerConnection> connections = new ArrayList<>();
+        try {
+            for (PeerTarget peer : peerTargets) {
+                CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(peer.endpoint,
+                        endpoint -> new CircuitBreaker(endpoint, ejectAfterFailures, ejectDurationMs));
+                // Each channel is one HTTP/2 connection; several per peer spread calls past its concurrent stream limit.
+                for (int i = 0; i < channelsPerPeer; i++) {
+                    ManagedChannel channel = newGrpcConnection(peer);
+
+                    // Create a gateway connection and obtain the smart contract deployed on the network.
+                    Gateway gateway = newGateway(channel, identity, signer);
+                    Network network = gateway.getNetwork(channelName);
+                    connections.add(new PeerConnection(peer.endpoint, channel, gateway, network,
+                            network.getContract(chaincodeName), circuitBreaker));
+                }
+                logger.info("Connected to peer {} ({}) with {} channel(s)", peer.endpoint, peer.overrideAuthority, channelsPerPeer);
+            }
+        } catch (Exception e) {
+            for (PeerConnection connection : connections) {
+                connection.close();
+            }
+            throw e;
+        }
+        return new PeerConnectionPool(connections);
+    }
 
-        // Create a gateway connection
-        gateway = builder.connect();
+    private List<Path> credentialDirectories() {
+        List<Path> directories = new ArrayList<>(List.of(certDirPath, keyDirPath));
+        for (PeerTarget peer : peerTargets) {
+            directories.add(peer.tlsCertPath.toAbsolutePath().getParent());
+        }
+        return directories;
+    }
 
-        // Obtain a smart contract deployed on the network.
-        network = gateway.getNetwork(channelName);
-        contract = network.getContract(chaincodeName);
-        logger.info("Fabric Gateway Client initialized successfully.");
+    /**
+     * Rebuilds the peer connections with the identity and TLS material now on disk and swaps them in for new
+     * calls. Calls already running finish on the previous connections, which are closed once drained. If the new
+     * material cannot be loaded, or no new channel manages to connect, the current connections stay in use.
+     */
+    synchronized void reloadCredentials() {
+        logger.info("Credential files changed; reloading identity and TLS material");
+        PeerConnectionPool replacement;
+        try {
+            replacement = newConnectionPool();
+            int ready = replacement.connect(reloadWarmupMs);
+            if (ready == 0) {
+                replacement.close();
+                throw new IOException("no peer channel became ready within " + reloadWarmupMs + " ms");
+            }
+            if (ready < replacement.getConnections().size()) {
+                logger.warn("{} of {} new peer channels ready after {} ms; swapping anyway",
+                        ready, replacement.getConnections().size(), reloadWarmupMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            ledgerMetrics.recordCredentialReload(LedgerMetrics.ERROR);
+            logger.error("Keeping the current peer connections; could not use the reloaded credentials: {}", e.getMessage());
+            return;
+        }
+
+        PeerConnectionPool previous = connectionPool;
+        connectionPool = replacement;
+        ledgerMetrics.recordCredentialReload(LedgerMetrics.SUCCESS);
+        logger.info("Swapped in peer connections with the reloaded credentials; draining the previous ones");
+
+        // Closing the previous primary also ends the event stream, and the listener resubscribes on the new one.
+        Thread drain = new Thread(() -> {
+            try {
+                previous.drainAndClose(reloadDrainTimeoutMs);
+            } catch (InterruptedException e) {
+                previous.close();
+            }
+        }, "peer-connection-drain");
+        drain.setDaemon(true);
+        drain.start();
+    }
+
+    private List<PeerTarget> resolvePeerTargets() throws IOException {
+        List<PeerTarget> targets = new ArrayList<>();
+        if (peerEndpoints == null || peerEndpoints.isBlank()) {
+            targets.add(new PeerTarget(peerEndpoint, overrideAuthority, tlsCertPath));
+            return targets;
+        }
+        for (String entry : peerEndpoints.split(",")) {
+            String[] parts = entry.trim().split("\\|");
+            if (parts.length < 2) {
+                throw new IOException("Peer endpoint must be endpoint|override-authority[|tls-ca-path]: " + entry);
+            }
+            Path peerTlsCertPath = parts.length > 2
+                    ? Paths.get(parts[2])
+                    : cryptoBasePath.resolve(Paths.get("peers", parts[1], "tls", "ca.crt"));
+            if (!Files.isRegularFile(peerTlsCertPath)) {
+                throw new IOException("TLS Certificate file not found or not a file: " + peerTlsCertPath);
+            }
+            targets.add(new PeerTarget(parts[0], parts[1], peerTlsCertPath));
+        }
+        return targets;
     }
 
-    private ManagedChannel newGrpcConnection() throws IOException {
+    private ManagedChannel newGrpcConnection(PeerTarget peer) throws IOException {
         var credentials = TlsChannelCredentials.newBuilder()
-                .trustManager(tlsCertPath.toFile())
+                .trustManager(peer.tlsCertPath.toFile())
                 .build();
-        return Grpc.newChannelBuilder(peerEndpoint, credentials)
-                .overrideAuthority(overrideAuthority)
+        return Grpc.newChannelBuilder(peer.endpoint, credentials)
+                .overrideAuthority(peer.overrideAuthority)
                 .build();
     }
 
+    private Gateway newGateway(ManagedChannel channel, Identity identity, Signer signer) {
+        return Gateway.newInstance()
+                .identity(identity)
+                .signer(signer)
+                .hash(Hash.SHA256)
+                .connection(channel)
+                .evaluateOptions(options -> options.withDeadlineAfter(evaluateDeadlineMs, TimeUnit.MILLISECONDS))
+                .endorseOptions(options -> options.withDeadlineAfter(endorseDeadlineMs, TimeUnit.MILLISECONDS))
+                .submitOptions(options -> options.withDeadlineAfter(submitDeadlineMs, TimeUnit.MILLISECONDS))
+                .commitStatusOptions(options -> options.withDeadlineAfter(commitStatusDeadlineMs, TimeUnit.MILLISECONDS))
+                .connect();
+    }
+
+    private static Map<String, Long> parseFunctionDeadlines(String overrides) {
+        Map<String, Long> deadlines = new HashMap<>();
+        if (overrides == null || overrides.isBlank()) {
+            return deadlines;
+        }
+        for (String entry : overrides.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Function deadline must be function:millis: " + entry);
+            }
+            deadlines.put(parts[0].trim(), Long.parseLong(parts[1].trim()));
+        }
+        return deadlines;
+    }
+
+    /**
+     * Call options applying the deadline configured for the function, or {@code defaultMillis}.
+     */
+    private UnaryOperator<CallOptions> deadline(String functionName, long defaultMillis) {
+        long millis = functionDeadlines.getOrDefault(functionName, defaultMillis);
+        return options -> options.withDeadlineAfter(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes a slot from the limiter for the call type, or rejects the call without contacting the peer.
+     */
+    private AdaptiveConcurrencyLimiter admit(AdaptiveConcurrencyLimiter limiter, String type, String functionName)
+            throws LedgerOverloadedException {
+        if (limiter == null || limiter.tryAcquire()) {
+            return limiter;
+        }
+        ledgerMetrics.recordRejected(type, functionName);
+        throw new LedgerOverloadedException(type, functionName, limiter.getLimit(), retryAfterSeconds);
+    }
+
     private Identity newIdentity() throws IOException, CertificateException {
         try (var certReader = Files.newBufferedReader(getFirstFilePath(certDirPath))) {
             var certificate = Identities.readX509Certificate(certReader);
@@ -142,13 +449,43 @@ public class FabricGatewayClient {
         }
     }
 
+    /**
+     * Endorses, submits and waits for the commit of a transaction, timing each phase separately.
+     */
     public String submitTransaction(String functionName, String... args) throws TimeoutException, InterruptedException, Exception {
-        logger.info("Submitting transaction: {}({})", functionName, String.join(", ", args));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Submitting transaction {} with {} argument(s), {} chars", functionName, args.length, payloadSize(args));
+        }
+        AdaptiveConcurrencyLimiter limiter = admit(submitLimiter, LedgerMetrics.SUBMIT, functionName);
+        PeerConnection connection = connectionPool.acquire();
+        long startNanos = ledgerMetrics.start(LedgerMetrics.SUBMIT);
+        Status.Code failure = null;
+        String outcome = LedgerMetrics.SUCCESS;
         try {
-            byte[] result = contract.submitTransaction(functionName, args);
-            logger.info("Transaction submitted. Result: {}", new String(result, StandardCharsets.UTF_8));
-            return new String(result, StandardCharsets.UTF_8);
+            long phaseStart = System.nanoTime();
+            Transaction transaction = connection.getContract().newProposal(functionName)
+                    .addArguments(args)
+                    .build()
+                    .endorse(deadline(functionName, endorseDeadlineMs));
+            long endorsed = System.nanoTime();
+            ledgerMetrics.recordPhase(functionName, LedgerMetrics.PHASE_ENDORSE, endorsed - phaseStart);
+
+            SubmittedTransaction submitted = transaction.submitAsync();
+            long sent = System.nanoTime();
+            ledgerMetrics.recordPhase(functionName, LedgerMetrics.PHASE_SUBMIT, sent - endorsed);
+
+            org.hyperledger.fabric.client.Status status = submitted.getStatus();
+            ledgerMetrics.recordPhase(functionName, LedgerMetrics.PHASE_COMMIT, System.nanoTime() - sent);
+            if (!status.isSuccessful()) {
+                throw new CommitFailedException(status);
+            }
+
+            String result = new String(submitted.getResult(), StandardCharsets.UTF_8);
+            logger.debug("Transaction {} committed, result {} chars", submitted.getTransactionId(), result.length());
+            return result;
         } catch (EndorseException e) {
+            failure = e.getStatus().getCode();
+            outcome = LedgerMetrics.outcomeOf(e);
             String specificError;
             if (e.getDetails() != null && !e.getDetails().isEmpty()) {
                 specificError = e.getDetails().get(0).getMessage();
@@ -158,21 +495,137 @@ public class FabricGatewayClient {
             logger.error("EndorseException during submitTransaction: {}", specificError);
             throw new Exception(specificError, e);
         } catch (GatewayException e) {
+            failure = e.getStatus().getCode();
+            outcome = LedgerMetrics.outcomeOf(e);
             logger.error("Fabric Gateway Exception during submitTransaction: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
+            failure = Status.Code.UNKNOWN;
+            outcome = e instanceof CommitFailedException ? LedgerMetrics.COMMIT_FAILURE : LedgerMetrics.outcomeOf(e);
             logger.error("General Exception during submitTransaction: {}", e.getMessage());
             throw e;
+        } finally {
+            ledgerMetrics.stop(startNanos, LedgerMetrics.SUBMIT, functionName, outcome);
+            release(connection, limiter, startNanos, failure);
+        }
+    }
+
+    /**
+     * Endorses the transaction and sends it to the orderer without waiting for it to commit.
+     * The returned handle reports the commit status via {@link SubmittedTransaction#getStatus()}, and keeps its
+     * connection open across a credential reload until then; a caller that will not read the status must
+     * {@link PinnedSubmittedTransaction#unpin() unpin} it.
+     */
+    public PinnedSubmittedTransaction submitTransactionAsync(String functionName, String... args) throws Exception {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Submitting transaction {} asynchronously with {} argument(s), {} chars", functionName, args.length, payloadSize(args));
+        }
+        AdaptiveConcurrencyLimiter limiter = admit(submitLimiter, LedgerMetrics.SUBMIT, functionName);
+        PeerConnection connection = connectionPool.acquire();
+        long startNanos = ledgerMetrics.start(LedgerMetrics.SUBMIT);
+        Status.Code failure = null;
+        String outcome = LedgerMetrics.SUCCESS;
+        try {
+            SubmittedTransaction submitted = connection.getContract().newProposal(functionName)
+                    .addArguments(args)
+                    .build()
+                    .endorse(deadline(functionName, endorseDeadlineMs))
+                    .submitAsync();
+            logger.debug("Transaction {} sent to orderer", submitted.getTransactionId());
+            return new PinnedSubmittedTransaction(submitted, connection);
+        } catch (EndorseException e) {
+            failure = e.getStatus().getCode();
+            outcome = LedgerMetrics.outcomeOf(e);
+            String specificError;
+            if (e.getDetails() != null && !e.getDetails().isEmpty()) {
+                specificError = e.getDetails().get(0).getMessage();
+            } else {
+                specificError = e.getMessage();
+            }
+            logger.error("EndorseException during submitTransactionAsync: {}", specificError);
+            throw new Exception(specificError, e);
+        } catch (GatewayException e) {
+            failure = e.getStatus().getCode();
+            outcome = LedgerMetrics.outcomeOf(e);
+            logger.error("Fabric Gateway Exception during submitTransactionAsync: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            failure = Status.Code.UNKNOWN;
+            outcome = LedgerMetrics.outcomeOf(e);
+            logger.error("General Exception during submitTransactionAsync: {}", e.getMessage());
+            throw e;
+        } finally {
+            ledgerMetrics.stop(startNanos, LedgerMetrics.SUBMIT, functionName, outcome);
+            release(connection, limiter, startNanos, failure);
         }
     }
 
     public String evaluateTransaction(String functionName, String... args) throws Exception {
-        logger.info("Evaluating transaction: {}({})", functionName, String.join(", ", args));
+        return new String(evaluateTransactionBytes(functionName, args), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Evaluates the transaction and returns the chaincode result exactly as the peer sent it, so JSON results
+     * can be written to a response without being decoded and re-encoded.
+     */
+    public byte[] evaluateTransactionBytes(String functionName, String... args) throws Exception {
+        if (!singleFlight) {
+            return evaluateHedged(functionName, args);
+        }
+        // Identical concurrent queries share one peer call; every waiter gets its result or its exception. The key
+        // carries the function's invalidation generation, so a read arriving after a submit never joins a call
+        // that started before it.
+        return evaluateFlights.execute(flightKey(functionName, evaluateCache.generation(functionName), args),
+                () -> evaluateHedged(functionName, args), () -> ledgerMetrics.recordCollapsed(functionName));
+    }
+
+    /**
+     * Evaluates on one connection and, if that is slower than usual for the function, also on another one.
+     */
+    private byte[] evaluateHedged(String functionName, String... args) throws Exception {
+        if (hedger == null) {
+            return evaluateOnPeer(functionName, args, null, null);
+        }
+        AtomicReference<PeerConnection> firstConnection = new AtomicReference<>();
+        return hedger.call(functionName,
+                hedge -> hedge
+                        ? evaluateOnPeer(functionName, args, firstConnection.get(), null)
+                        : evaluateOnPeer(functionName, args, null, firstConnection),
+                () -> ledgerMetrics.recordHedged(functionName));
+    }
+
+    private static String flightKey(String functionName, long generation, String... args) {
+        StringBuilder key = new StringBuilder(functionName).append('\u0000').append(generation);
+        for (String arg : args) {
+            key.append('\u0000').append(arg);
+        }
+        return key.toString();
+    }
+
+    private byte[] evaluateOnPeer(String functionName, String[] args, PeerConnection avoid,
+                                  AtomicReference<PeerConnection> acquired) throws Exception {
+        logger.debug("Evaluating transaction {} with {} argument(s)", functionName, args.length);
+        AdaptiveConcurrencyLimiter limiter = admit(evaluateLimiter, LedgerMetrics.EVALUATE, functionName);
+        PeerConnection connection = connectionPool.acquire(avoid);
+        if (acquired != null) {
+            acquired.set(connection);
+        }
+        long startNanos = ledgerMetrics.start(LedgerMetrics.EVALUATE);
+        Status.Code failure = null;
+        String outcome = LedgerMetrics.SUCCESS;
         try {
-            byte[] result = contract.evaluateTransaction(functionName, args);
-            logger.info("Evaluation result: {}", new String(result, StandardCharsets.UTF_8));
-            return new String(result, StandardCharsets.UTF_8);
+            byte[] result = connection.getContract().newProposal(functionName)
+                    .addArguments(args)
+                    .build()
+                    .evaluate(deadline(functionName, evaluateDeadlineMs));
+            logger.debug("Evaluated {}, result {} bytes", functionName, result.length);
+            if (hedger != null) {
+                hedger.record(functionName, System.nanoTime() - startNanos);
+            }
+            return result;
         } catch (EndorseException e) {
+            failure = e.getStatus().getCode();
+            outcome = LedgerMetrics.outcomeOf(e);
             String specificError;
             if (e.getDetails() != null && !e.getDetails().isEmpty()) {
                 specificError = e.getDetails().get(0).getMessage();
@@ -182,19 +635,115 @@ public class FabricGatewayClient {
             logger.error("EndorseException during evaluateTransaction: {}", specificError);
             throw new Exception(specificError, e);
         } catch (GatewayException e) {
-            logger.error("Fabric Gateway Exception during evaluateTransaction: {}", e.getMessage());
+            failure = e.getStatus().getCode();
+            outcome = LedgerMetrics.outcomeOf(e);
+            if (failure == Status.Code.CANCELLED) {
+                // The losing attempt of a hedged read.
+                logger.debug("evaluateTransaction {} cancelled", functionName);
+            } else {
+                logger.error("Fabric Gateway Exception during evaluateTransaction: {}", e.getMessage());
+            }
             throw e;
         } catch (Exception e) {
+            failure = Status.Code.UNKNOWN;
+            outcome = LedgerMetrics.outcomeOf(e);
             logger.error("General Exception during evaluateTransaction: {}", e.getMessage());
             throw e;
+        } finally {
+            ledgerMetrics.stop(startNanos, LedgerMetrics.EVALUATE, functionName, outcome);
+            release(connection, limiter, startNanos, failure);
+        }
+    }
+
+    // Only called behind debug logging: ledger payloads are logged by size, never by content.
+    private static int payloadSize(String... args) {
+        int size = 0;
+        for (String arg : args) {
+            size += arg.length();
+        }
+        return size;
+    }
+
+    private void release(PeerConnection connection, AdaptiveConcurrencyLimiter limiter, long startNanos, Status.Code failure) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (limiter != null) {
+            limiter.release(elapsedNanos, failure);
+        }
+        if (failure == null) {
+            connectionPool.release(connection, elapsedNanos);
+        } else {
+            connectionPool.releaseFailed(connection, failure);
+        }
+    }
+
+    public Network getNetwork() {
+        return connectionPool.primary().getNetwork();
+    }
+
+    /**
+     * Returns the number of blocks in the channel's ledger, as reported by the peer's qscc system chaincode.
+     */
+    public long getChainHeight() throws Exception {
+        Network network = getNetwork();
+        byte[] chainInfo = network.getContract("qscc").evaluateTransaction("GetChainInfo", network.getName());
+        return BlockchainInfo.parseFrom(chainInfo).getHeight();
+    }
+
+    public PeerConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public String getChaincodeName() {
+        return chaincodeName;
+    }
+
+    /**
+     * Evaluates the transaction on the ledger executor, so callers can fan out or time-bound ledger queries
+     * without holding a request thread for each one. When the executor queue is full the future fails with
+     * {@link LedgerOverloadedException}.
+     */
+    public CompletableFuture<byte[]> evaluateTransactionBytesAsync(String functionName, String... args) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return evaluateTransactionBytes(functionName, args);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, ledgerExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LedgerOverloadedException(
+                    String.format("Ledger executor queue is full, %s was not sent to the peer", functionName), retryAfterSeconds));
         }
     }
 
     @PreDestroy
     public void shutdown() {
-        if (gateway != null) {
-            logger.info("Closing Fabric Gateway connection...");
-            gateway.close();
+        if (credentialWatcher != null) {
+            try {
+                credentialWatcher.close();
+            } catch (IOException e) {
+                logger.warn("Failed to stop the credential watcher: {}", e.getMessage());
+            }
+        }
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+        if (connectionPool != null) {
+            logger.info("Closing Fabric Gateway connections...");
+            connectionPool.close();
+        }
+    }
+
+    private static final class PeerTarget {
+        private final String endpoint;
+        private final String overrideAuthority;
+        private final Path tlsCertPath;
+
+        private PeerTarget(String endpoint, String overrideAuthority, Path tlsCertPath) {
+            this.endpoint = endpoint;
+            this.overrideAuthority = overrideAuthority;
+            this.tlsCertPath = tlsCertPath;
         }
     }
 }
@@ -0,0 +1,208 @@
+package com.example.trustregistry.batch;
+
+import com.example.trustregistry.FabricGatewayClient;
+import com.example.trustregistry.gateway.SubmitFailure;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Submits many CreateTrustRecord transactions concurrently so the orderer can cut them into shared blocks.
+ * <p>
+ * When a bulk chaincode function is configured, records are grouped into bulk invocations instead, and concurrent
+ * single submits can be coalesced into the same invocation within a short window. A bulk invocation the chaincode
+ * rejects is retried record by record so one invalid record does not fail its neighbours. Any other failure is
+ * passed to every record of the invocation: retrying would add load to a struggling peer, and once the invocation
+ * may have reached the orderer a retry could apply records twice.
+ */
+@Component
+public class TrustRecordBatchSubmitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrustRecordBatchSubmitter.class);
+
+    private static final String CREATE_TRUST_RECORD = "CreateTrustRecord";
+
+    @Value("${trustregistry.batch.bulk-function:}")
+    private String bulkFunction;
+
+    @Value("${trustregistry.batch.max-bulk-size:100}")
+    private int maxBulkSize;
+
+    @Value("${trustregistry.batch.window-ms:0}")
+    private long windowMs;
+
+    @Value("${trustregistry.batch.parallelism:16}")
+    private int parallelism;
+
+    private final FabricGatewayClient fabricGatewayClient;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService flushScheduler;
+    private List<PendingSubmit> pending = new ArrayList<>();
+
+    public TrustRecordBatchSubmitter(FabricGatewayClient fabricGatewayClient) {
+        this.fabricGatewayClient = fabricGatewayClient;
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "trust-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trust-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Trust record batch submitter initialized (bulkFunction: '{}', maxBulkSize: {}, windowMs: {}, parallelism: {})",
+                bulkFunction, maxBulkSize, windowMs, parallelism);
+    }
+
+    /**
+     * Returns true when single CreateTrustRecord submits should go through {@link #submitCoalesced}.
+     */
+    public boolean isCoalescing() {
+        return !bulkFunction.isEmpty() && windowMs > 0;
+    }
+
+    /**
+     * Submits every record and returns one future per record, in input order, completing with the chaincode result.
+     */
+    public List<CompletableFuture<String>> submitAll(List<String> ids, List<String> recordJsons) {
+        List<PendingSubmit> submits = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            submits.add(new PendingSubmit(ids.get(i), recordJsons.get(i)));
+        }
+        if (bulkFunction.isEmpty()) {
+            for (PendingSubmit submit : submits) {
+                executor.execute(() -> submitSingle(submit));
+            }
+        } else {
+            for (int from = 0; from < submits.size(); from += maxBulkSize) {
+                List<PendingSubmit> chunk = submits.subList(from, Math.min(from + maxBulkSize, submits.size()));
+                executor.execute(() -> submitBulk(chunk));
+            }
+        }
+        List<CompletableFuture<String>> futures = new ArrayList<>(submits.size());
+        for (PendingSubmit submit : submits) {
+            futures.add(submit.future);
+        }
+        return futures;
+    }
+
+    /**
+     * Queues a single record for the next bulk invocation and blocks until it is committed.
+     */
+    public String submitCoalesced(String id, String recordJson) throws Exception {
+        PendingSubmit submit = new PendingSubmit(id, recordJson);
+        List<PendingSubmit> full = null;
+        synchronized (this) {
+            pending.add(submit);
+            if (pending.size() >= maxBulkSize) {
+                full = pending;
+                pending = new ArrayList<>();
+            } else if (pending.size() == 1) {
+                flushScheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            List<PendingSubmit> chunk = full;
+            executor.execute(() -> submitBulk(chunk));
+        }
+        try {
+            return submit.future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void flush() {
+        List<PendingSubmit> chunk;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            chunk = pending;
+            pending = new ArrayList<>();
+        }
+        executor.execute(() -> submitBulk(chunk));
+    }
+
+    private void submitSingle(PendingSubmit submit) {
+        try {
+            submit.future.complete(fabricGatewayClient.submitTransaction(CREATE_TRUST_RECORD, submit.recordJson));
+        } catch (Exception e) {
+            submit.future.completeExceptionally(e);
+        }
+    }
+
+    private void submitBulk(List<PendingSubmit> chunk) {
+        if (chunk.size() == 1) {
+            submitSingle(chunk.get(0));
+            return;
+        }
+        StringBuilder records = new StringBuilder("[");
+        for (PendingSubmit submit : chunk) {
+            if (records.length() > 1) {
+                records.append(',');
+            }
+            records.append(submit.recordJson);
+        }
+        records.append(']');
+        try {
+            fabricGatewayClient.submitTransaction(bulkFunction, records.toString());
+            for (PendingSubmit submit : chunk) {
+                submit.future.complete(submit.id);
+            }
+        } catch (Exception e) {
+            SubmitFailure failure = SubmitFailure.of(e);
+            if (failure.isDefinite()) {
+                logger.warn("Bulk {} of {} records rejected, retrying individually: {}", bulkFunction, chunk.size(), e.getMessage());
+                for (PendingSubmit submit : chunk) {
+                    executor.execute(() -> submitSingle(submit));
+                }
+                return;
+            }
+            logger.warn("Bulk {} of {} records failed ({}), not retrying: {}", bulkFunction, chunk.size(), failure, e.getMessage());
+            for (PendingSubmit submit : chunk) {
+                submit.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushScheduler.shutdown();
+        executor.shutdown();
+    }
+
+    private static final class PendingSubmit {
+        private final String id;
+        private final String recordJson;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        private PendingSubmit(String id, String recordJson) {
+            this.id = id;
+            this.recordJson = recordJson;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.trustregistry.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded read-through cache in front of evaluateTransaction, keyed by chaincode function name plus arguments.
+ * Entries are evicted by size and TTL, and invalidated when a submit touches the record they describe.
+ * Values are the raw chaincode result bytes; callers must not modify the returned arrays.
+ * <p>
+ * Loads run outside the cache, so a read that started before a submit could otherwise store its pre-write result
+ * after the invalidation. Invalidations bump a generation per function (and a global one), and a load only stores
+ * its result if the generation it started under is still current.
+ */
+@Component
+public class EvaluateCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluateCache.class);
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    @Value("${trustregistry.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trustregistry.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${trustregistry.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private Cache<String, byte[]> cache;
+
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final Map<String, AtomicLong> functionGenerations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        logger.info("Evaluate cache initialized (enabled: {}, maxSize: {}, ttlSeconds: {})", enabled, maxSize, ttlSeconds);
+    }
+
+    /**
+     * Returns the cached result for the call, or runs the loader and caches its result.
+     * Failed loads are not cached. The loader runs outside of any cache lock so a slow peer
+     * query does not block unrelated keys.
+     */
+    public byte[] get(String functionName, String[] args, Callable<byte[]> loader) throws Exception {
+        if (!enabled) {
+            return loader.call();
+        }
+        String key = key(functionName, args);
+        byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation(functionName);
+        byte[] result = loader.call();
+        putIfCurrent(functionName, generation, key, result);
+        return result;
+    }
+
+    /**
+     * Returns the invalidation generation of a function, to be read before loading a result that is later passed
+     * to {@link #put}. Both parts only grow, so their sum is unchanged only if neither changed.
+     */
+    public long generation(String functionName) {
+        return globalGeneration.get() + functionGeneration(functionName).get();
+    }
+
+    /**
+     * Returns the cached result for the call without loading it, or null when it is not cached.
+     */
+    public byte[] getIfPresent(String functionName, String... args) {
+        return enabled ? cache.getIfPresent(key(functionName, args)) : null;
+    }
+
+    /**
+     * Caches a result that was loaded outside of {@link #get}, e.g. by an asynchronous fan-out, unless the function
+     * was invalidated since {@code generation} was read.
+     */
+    public void put(String functionName, long generation, byte[] result, String... args) {
+        if (enabled) {
+            putIfCurrent(functionName, generation, key(functionName, args), result);
+        }
+    }
+
+    private void putIfCurrent(String functionName, long generation, String key, byte[] result) {
+        if (generation(functionName) != generation) {
+            return;
+        }
+        cache.put(key, result);
+        // An invalidation between the check and the put bumped the generation first; undo our put.
+        if (generation(functionName) != generation) {
+            cache.asMap().remove(key, result);
+        }
+    }
+
+    private AtomicLong functionGeneration(String functionName) {
+        return functionGenerations.computeIfAbsent(functionName, f -> new AtomicLong());
+    }
+
+    /**
+     * Drops every entry a successful submit could have made stale: the single-record read for
+     * {@code recordKey} and all list queries over the same record type. A null key clears the cache.
+     */
+    public void invalidateAfterSubmit(String functionName, String recordKey) {
+        if (recordKey == null) {
+            invalidateAll();
+            return;
+        }
+        switch (functionName) {
+            case "CreateTrustRecord":
+                functionGeneration("ReadTrustRecord").incrementAndGet();
+                cache.invalidate(key("ReadTrustRecord", recordKey));
+                invalidateFunctions("GetAllTrustRecords", "GetTrustRecordsByCredentialType");
+                break;
+            case "CreateGovernanceRecord":
+                functionGeneration("ReadGovernanceRecord").incrementAndGet();
+                cache.invalidate(key("ReadGovernanceRecord", recordKey));
+                invalidateFunctions("GetAllGovernanceRecords");
+                break;
+            default:
+                invalidateAll();
+        }
+    }
+
+    private void invalidateAll() {
+        globalGeneration.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "evaluate");
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private void invalidateFunctions(String... functionNames) {
+        for (String functionName : functionNames) {
+            functionGeneration(functionName).incrementAndGet();
+        }
+        cache.asMap().keySet().removeIf(key -> {
+            for (String functionName : functionNames) {
+                if (key.startsWith(functionName + KEY_SEPARATOR)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private static String key(String functionName, String... args) {
+        StringBuilder key = new StringBuilder(functionName);
+        for (String arg : args) {
+            key.append(KEY_SEPARATOR).append(arg);
+        }
+        // Terminate so "GetAll" never prefix-matches "GetAllTrustRecords".
+        return key.append(KEY_SEPARATOR).toString();
+    }
+}
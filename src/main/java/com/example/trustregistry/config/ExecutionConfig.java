@@ -0,0 +1,66 @@
+package com.example.trustregistry.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the execution model for ledger calls.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} on a Java 21+ runtime, Spring Boot serves requests on virtual
+ * threads and the ledger executor creates one virtual thread per call, so thousands of blocked gateway calls cost
+ * no platform threads. Otherwise, which includes every Java 17 runtime, requests run on Tomcat's platform pool and
+ * async ledger calls use a fixed pool whose queue is bounded: a full queue rejects the call, which callers report as
+ * overload, rather than letting queued calls and their latency grow without limit.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    @Value("${trustregistry.execution.ledger-threads:200}")
+    private int ledgerThreads;
+
+    @Value("${trustregistry.execution.ledger-queue-capacity:1000}")
+    private int ledgerQueueCapacity;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService ledgerExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+            if (virtualExecutor != null) {
+                logger.info("Ledger calls run on virtual threads.");
+                return virtualExecutor;
+            }
+        }
+        logger.info("Ledger calls run on a pool of {} platform threads with a queue of {}.", ledgerThreads, ledgerQueueCapacity);
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(ledgerThreads, ledgerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(ledgerQueueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "ledger-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Looked up reflectively because the project still compiles for Java 17.
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads requested but not supported by this runtime; using platform threads.");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.trustregistry.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Jackson's Blackbird module with the application ObjectMapper. It replaces reflective getter, setter and
+ * constructor calls with generated lambdas, which speeds up (de)serialization of the record beans on every request.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "trustregistry.json.blackbird", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -1,26 +1,71 @@
 package com.example.trustregistry.controller;
 
 import com.example.trustregistry.FabricGatewayClient;
+import com.example.trustregistry.batch.TrustRecordBatchSubmitter;
+import com.example.trustregistry.cache.EvaluateCache;
+import com.example.trustregistry.feed.ChangeFeed;
+import com.example.trustregistry.gateway.LedgerOverloadedException;
+import com.example.trustregistry.gateway.PinnedSubmittedTransaction;
+import com.example.trustregistry.gateway.SubmitFailure;
+import com.example.trustregistry.idempotency.IdempotencyStore;
+import com.example.trustregistry.model.BatchItemResult;
 import com.example.trustregistry.model.ErrorResponse;
 import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.LookupItemResult;
+import com.example.trustregistry.model.TransactionStatus;
 import com.example.trustregistry.model.TrustRecord;
+import com.example.trustregistry.tx.CommitStatusTracker;
+import com.example.trustregistry.validation.RecordValidator;
+import com.example.trustregistry.view.LedgerView;
+import com.example.trustregistry.view.TrustRecordField;
+import com.example.trustregistry.view.ValidityWindow;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.net.URI;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
 
 @RestController
 @RequestMapping("/api/trustregistry")
@@ -29,16 +74,66 @@ public class TrustRegistryController {
     private static final Logger logger = LoggerFactory.getLogger(TrustRegistryController.class);
     private final FabricGatewayClient fabricGatewayClient;
     private final ObjectMapper objectMapper;
+    private final EvaluateCache evaluateCache;
+    private final LedgerView ledgerView;
+    private final TrustRecordBatchSubmitter batchSubmitter;
+    private final CommitStatusTracker commitStatusTracker;
+    private final RecordValidator recordValidator;
+    private final IdempotencyStore idempotencyStore;
+    private final ChangeFeed changeFeed;
+    // Resolved once; a host lookup per request was a blocking DNS call on the hot path.
+    private final String systemIpAddress;
 
     private static final Pattern CHAINCODE_ERROR_PATTERN = Pattern.compile("chaincode response \\d{3}, (.*)");
+    private static final String STRONG_CONSISTENCY = "strong";
+    private static final String ASYNC_MODE = "async";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final TypeReference<List<TrustRecord>> TRUST_RECORD_LIST = new TypeReference<>() {};
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String VIEW_BOOKMARK = "v";
+    private static final String PEER_BOOKMARK = "p";
+
+    @Value("${trustregistry.pagination.trust-function:GetTrustRecordsWithPagination}")
+    private String trustPaginationFunction;
+
+    @Value("${trustregistry.pagination.governance-function:GetGovernanceRecordsWithPagination}")
+    private String governancePaginationFunction;
+
+    @Value("${trustregistry.pagination.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${trustregistry.pagination.stream-page-size:500}")
+    private int streamPageSize;
+
+    @Value("${trustregistry.batch.max-items:1000}")
+    private int maxBatchItems;
+
+    @Value("${trustregistry.lookup.max-ids:100}")
+    private int maxLookupIds;
+
+    @Value("${trustregistry.lookup.parallelism:16}")
+    private int lookupParallelism;
 
     @Autowired
-    public TrustRegistryController(FabricGatewayClient fabricGatewayClient, ObjectMapper objectMapper) {
+    public TrustRegistryController(FabricGatewayClient fabricGatewayClient, ObjectMapper objectMapper, EvaluateCache evaluateCache,
+                                   LedgerView ledgerView, TrustRecordBatchSubmitter batchSubmitter,
+                                   CommitStatusTracker commitStatusTracker, RecordValidator recordValidator,
+                                   IdempotencyStore idempotencyStore, ChangeFeed changeFeed) {
         this.fabricGatewayClient = fabricGatewayClient;
         this.objectMapper = objectMapper;
+        this.evaluateCache = evaluateCache;
+        this.ledgerView = ledgerView;
+        this.batchSubmitter = batchSubmitter;
+        this.commitStatusTracker = commitStatusTracker;
+        this.recordValidator = recordValidator;
+        this.idempotencyStore = idempotencyStore;
+        this.changeFeed = changeFeed;
+        this.systemIpAddress = resolveSystemIpAddress();
     }
 
-    private String getSystemIpAddress() {
+    private static String resolveSystemIpAddress() {
         try {
             return InetAddress.getLocalHost().getHostAddress();
         } catch (UnknownHostException e) {
@@ -47,7 +142,7 @@ public class TrustRegistryController {
         }
     }
 
-    private ResponseEntity<Object> createErrorResponse(HttpStatus status, String message, String details, String correlationId) {
+    ResponseEntity<Object> createErrorResponse(HttpStatus status, String message, String details, String correlationId) {
         try {
             ErrorResponse errorResponse = new ErrorResponse(message, details);
             logger.error("ErrorResponse created with correlationId: {}, message: {}, details: {}", correlationId, message, details);
@@ -63,7 +158,18 @@ public class TrustRegistryController {
         }
     }
 
-    private String extractChaincodeErrorMessage(String chaincodeErrorMessage) {
+    /**
+     * Fast 503 for a call the concurrency limiter shed. Logged at debug only: under overload there is one per
+     * rejected request, and logging each at error level would add to the load being shed.
+     */
+    private ResponseEntity<Object> overloadedResponse(String transactionName, LedgerOverloadedException e, String correlationId) {
+        logger.debug("{} rejected by the ledger concurrency limiter, correlationId: {}", transactionName, correlationId);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse("Ledger is overloaded, retry later", e.getMessage()));
+    }
+
+    String extractChaincodeErrorMessage(String chaincodeErrorMessage) {
         Matcher matcher = CHAINCODE_ERROR_PATTERN.matcher(chaincodeErrorMessage);
         if (matcher.find()) {
             return matcher.group(1).trim();
@@ -71,8 +177,13 @@ public class TrustRegistryController {
         return chaincodeErrorMessage;
     }
 
-    private String generateCorrelationId() {
-        return UUID.randomUUID().toString();
+    /**
+     * Returns the correlation ID {@link CorrelationIdFilter} put in the MDC for this request, or a fresh one
+     * when the controller is called outside of the servlet filter chain.
+     */
+    String generateCorrelationId() {
+        String correlationId = MDC.get(CorrelationIdFilter.MDC_KEY);
+        return correlationId != null ? correlationId : UUID.randomUUID().toString();
     }
 
     private void logRequest(String action, String systemIp, String correlationId) {
@@ -80,11 +191,13 @@ public class TrustRegistryController {
     }
 
     // New helper method to handle submitting a transaction
-    private ResponseEntity<Object> submitTransaction(String transactionName, String payload, String correlationId) {
-        String systemIp = getSystemIpAddress();
-        logRequest(transactionName, systemIp, correlationId);
+    private ResponseEntity<Object> submitTransaction(String transactionName, String payload, String recordKey, String correlationId) {
+        logRequest(transactionName, systemIpAddress, correlationId);
         try {
-            String result = fabricGatewayClient.submitTransaction(transactionName, payload);
+            String result = "CreateTrustRecord".equals(transactionName) && batchSubmitter.isCoalescing()
+                    ? batchSubmitter.submitCoalesced(recordKey, payload)
+                    : fabricGatewayClient.submitTransaction(transactionName, payload);
+            evaluateCache.invalidateAfterSubmit(transactionName, recordKey);
 
             logger.info("{} completed successfully, correlationId: {}", transactionName, correlationId);
 
@@ -98,39 +211,175 @@ public class TrustRegistryController {
             }
 
             return ResponseEntity.ok(successResponse);
-        } catch (TimeoutException | InterruptedException e) {
-            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
-                    String.format("Error processing transaction '%s' due to timeout or interruption", transactionName),
-                    e.getMessage(), correlationId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return submitFailureResponse(transactionName, e, correlationId);
+        } catch (LedgerOverloadedException e) {
+            return overloadedResponse(transactionName, e, correlationId);
         } catch (Exception e) {
-            String detailedError = extractChaincodeErrorMessage(e.getMessage());
+            return submitFailureResponse(transactionName, e, correlationId);
+        }
+    }
 
-            if ("CreateGovernanceRecord".equals(transactionName) && detailedError.contains("already exists")) {
-                return createErrorResponse(HttpStatus.CONFLICT, "Governance record already exists", detailedError, correlationId);
-            } else if ("CreateTrustRecord".equals(transactionName) && detailedError.contains("governance record not found")) {
-                return createErrorResponse(HttpStatus.BAD_REQUEST, "Trust record validation failed: Associated governance record not found", detailedError, correlationId);
+    // Helper method to submit a transaction and return 202 once the orderer has accepted it
+    private ResponseEntity<Object> submitTransactionAsync(String transactionName, String payload, String recordKey, String correlationId) {
+        logRequest(transactionName + " (async)", systemIpAddress, correlationId);
+        try {
+            // Refused here, before anything is sent, when too many earlier submits are still awaiting their status.
+            commitStatusTracker.reserve(transactionName);
+            PinnedSubmittedTransaction submitted;
+            try {
+                submitted = fabricGatewayClient.submitTransactionAsync(transactionName, payload);
+            } catch (Exception e) {
+                commitStatusTracker.release();
+                throw e;
             }
-            return createErrorResponse(HttpStatus.BAD_REQUEST,
-                    String.format("Invalid data or chaincode error for transaction '%s'", transactionName),
-                    detailedError, correlationId);
+            TransactionStatus status;
+            try {
+                status = commitStatusTracker.track(transactionName, submitted,
+                        () -> evaluateCache.invalidateAfterSubmit(transactionName, recordKey));
+            } catch (RuntimeException e) {
+                // Nothing will read the commit status, so do not hold the connection open for it.
+                submitted.unpin();
+                throw e;
+            }
+
+            logger.info("{} accepted with transactionId: {}, correlationId: {}", transactionName, status.getTransactionId(), correlationId);
+
+            Map<String, String> acceptedResponse = new LinkedHashMap<>();
+            acceptedResponse.put("result", "Accepted");
+            acceptedResponse.put("transaction_id", status.getTransactionId());
+            acceptedResponse.put("status", status.getStatus());
+            String statusPath = "/api/trustregistry/tx/" + status.getTransactionId() + "/status";
+            acceptedResponse.put("status_url", statusPath);
+            return ResponseEntity.accepted().location(URI.create(statusPath)).body(acceptedResponse);
+        } catch (LedgerOverloadedException e) {
+            return overloadedResponse(transactionName, e, correlationId);
+        } catch (Exception e) {
+            return submitFailureResponse(transactionName, e, correlationId);
+        }
+    }
+
+    private ResponseEntity<Object> submitTransaction(String transactionName, String payload, String recordKey, String mode,
+                                                     String correlationId) {
+        if (ASYNC_MODE.equalsIgnoreCase(mode)) {
+            return submitTransactionAsync(transactionName, payload, recordKey, correlationId);
         }
+        return submitTransaction(transactionName, payload, recordKey, correlationId);
+    }
+
+    /**
+     * Submits at most once per Idempotency-Key: a retry with the same key and body attaches to the call in flight
+     * or gets its stored response, marked with {@code Idempotent-Replayed: true}. Without a key this is a plain submit.
+     */
+    private ResponseEntity<Object> submitTransaction(String transactionName, String payload, String recordKey, String mode,
+                                                     String idempotencyKey, String correlationId) {
+        if (idempotencyKey == null) {
+            return submitTransaction(transactionName, payload, recordKey, mode, correlationId);
+        }
+        if (!IdempotencyStore.isValidKey(idempotencyKey)) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid Idempotency-Key",
+                    "The Idempotency-Key header must be 1 to 128 printable ASCII characters", correlationId);
+        }
+        // Sync and async submits answer differently, so the key is scoped to the mode as well as the transaction.
+        String operation = ASYNC_MODE.equalsIgnoreCase(mode) ? transactionName + " (async)" : transactionName;
+        IdempotencyStore.Result result = idempotencyStore.execute(operation, idempotencyKey, payload,
+                () -> submitTransaction(transactionName, payload, recordKey, mode, correlationId));
+        if (result.isMismatched()) {
+            return createErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key already used",
+                    "The Idempotency-Key was already used with a different request body", correlationId);
+        }
+        ResponseEntity<Object> response = result.getResponse();
+        if (!result.isReplayed()) {
+            return response;
+        }
+        logger.info("{} answered from the idempotency store, correlationId: {}", transactionName, correlationId);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    /**
+     * Answers a failed submit: 400/409 when the chaincode rejected it, 502/503/504 when it failed on the way to the
+     * ledger, so clients and the idempotency store can tell a definite rejection from one worth retrying.
+     */
+    private ResponseEntity<Object> submitFailureResponse(String transactionName, Exception e, String correlationId) {
+        SubmitFailure failure = SubmitFailure.of(e);
+        String detailedError = extractChaincodeErrorMessage(String.valueOf(e.getMessage()));
+        return createErrorResponse(submitFailureStatus(transactionName, failure, detailedError),
+                submitFailureMessage(transactionName, failure, detailedError), detailedError, correlationId);
+    }
+
+    private HttpStatus submitErrorStatus(String transactionName, String detailedError) {
+        if ("CreateGovernanceRecord".equals(transactionName) && detailedError.contains("already exists")) {
+            return HttpStatus.CONFLICT;
+        }
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    /**
+     * Chaincode rejections keep the 400/409 of {@link #submitErrorStatus}; failures on the way to the ledger are
+     * 502/503/504, with 504 whenever the transaction may still commit.
+     */
+    private HttpStatus submitFailureStatus(String transactionName, SubmitFailure failure, String detailedError) {
+        switch (failure) {
+            case REJECTED:
+                return submitErrorStatus(transactionName, detailedError);
+            case UNAVAILABLE:
+                return HttpStatus.SERVICE_UNAVAILABLE;
+            case TIMED_OUT:
+            case INDETERMINATE:
+                return HttpStatus.GATEWAY_TIMEOUT;
+            default:
+                return HttpStatus.BAD_GATEWAY;
+        }
+    }
+
+    private String submitFailureMessage(String transactionName, SubmitFailure failure, String detailedError) {
+        switch (failure) {
+            case REJECTED:
+                return submitErrorMessage(transactionName, detailedError);
+            case INVALIDATED:
+                return String.format("Transaction '%s' was invalidated at commit and had no effect", transactionName);
+            case INDETERMINATE:
+                return String.format("Outcome of transaction '%s' is unknown, read the record before retrying", transactionName);
+            default:
+                return String.format("Transaction '%s' could not reach the ledger", transactionName);
+        }
+    }
+
+    private String submitErrorMessage(String transactionName, String detailedError) {
+        if ("CreateGovernanceRecord".equals(transactionName) && detailedError.contains("already exists")) {
+            return "Governance record already exists";
+        } else if ("CreateTrustRecord".equals(transactionName) && detailedError.contains("governance record not found")) {
+            return "Trust record validation failed: Associated governance record not found";
+        }
+        return String.format("Invalid data or chaincode error for transaction '%s'", transactionName);
     }
 
     // New helper method to handle evaluating a transaction (queries)
     private ResponseEntity<Object> evaluateTransaction(String transactionName, String correlationId, String... args) {
-        String systemIp = getSystemIpAddress();
-        logRequest(transactionName, systemIp, correlationId);
+        return evaluateTransaction(transactionName, false, null, correlationId, args);
+    }
+
+    private ResponseEntity<Object> evaluateTransaction(String transactionName, boolean strong, String ifNoneMatch,
+                                                       String correlationId, String... args) {
+        logRequest(transactionName, systemIpAddress, correlationId);
         try {
-            String result;
-            if (args.length > 0) {
-                result = fabricGatewayClient.evaluateTransaction(transactionName, args[0]);
-            } else {
-                result = fabricGatewayClient.evaluateTransaction(transactionName);
-            }
+            byte[] result = evaluate(transactionName, strong, args);
 
             logger.info("{} completed successfully, correlationId: {}", transactionName, correlationId);
 
-            return ResponseEntity.ok(result);
+            // Peer results carry no version, so tag them by content; a match still saves the response body.
+            String etag = contentEtag(result);
+            if (etagMatches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            // The chaincode already returns JSON; write its bytes as they are instead of decoding to a String.
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag).body(result);
+        } catch (LedgerOverloadedException e) {
+            return overloadedResponse(transactionName, e, correlationId);
         } catch (Exception e) {
             String detailedError = extractChaincodeErrorMessage(e.getMessage());
 
@@ -144,65 +393,717 @@ public class TrustRegistryController {
         }
     }
 
+    private byte[] evaluate(String transactionName, boolean strong, String... args) throws Exception {
+        if (strong) {
+            return fabricGatewayClient.evaluateTransactionBytes(transactionName, args);
+        }
+        return evaluateCache.get(transactionName, args, () -> fabricGatewayClient.evaluateTransactionBytes(transactionName, args));
+    }
+
+    private List<TrustRecord> readTrustRecords(byte[] json) throws IOException {
+        if (isBlank(json)) {
+            return List.of();
+        }
+        List<TrustRecord> records = objectMapper.readValue(json, TRUST_RECORD_LIST);
+        return records != null ? records : List.of();
+    }
+
+    private static boolean isBlank(byte[] json) {
+        for (byte b : json) {
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
-     * Helper method for evaluating a transaction with a single string argument.
+     * Helper method for answering a query from the local ledger view, falling back to the peer.
      *
-     * @param transactionName The name of the chaincode transaction to evaluate.
-     * @param argument The single string argument for the transaction.
-     * @return A ResponseEntity with the transaction result or an error.
+     * @param transactionName The chaincode transaction the query stands in for.
+     * @param consistency "strong" to bypass the view and the cache and always evaluate on the peer.
+     * @param ifNoneMatch The If-None-Match header; a matching entity tag gets a 304 without a body.
+     * @param viewQuery Reads the answer from the view; a null result falls back to the peer.
+     * @param args The arguments for the chaincode transaction.
+     * @return A ResponseEntity with the query result or an error.
      */
-    private ResponseEntity<Object> evaluateSingleArgTransaction(String transactionName, String argument) {
+    private ResponseEntity<Object> queryTransaction(String transactionName, String consistency, String ifNoneMatch,
+                                                    Supplier<Object> viewQuery, String... args) {
         String correlationId = generateCorrelationId();
-        return evaluateTransaction(transactionName, correlationId, argument);
+        boolean strong = STRONG_CONSISTENCY.equalsIgnoreCase(consistency);
+        if (!strong && ledgerView.isServable()) {
+            // Checked before querying, so a poll against an unchanged view skips the query and serialization.
+            String etag = ledgerView.etag(resourceKey(transactionName, args));
+            if (etagMatches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            Object viewResult = viewQuery.get();
+            if (viewResult != null) {
+                logRequest(transactionName + " (ledger view)", systemIpAddress, correlationId);
+                try {
+                    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag)
+                            .body(objectMapper.writeValueAsBytes(viewResult));
+                } catch (JsonProcessingException e) {
+                    return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                            String.format("Error serializing ledger view result for '%s'", transactionName),
+                            e.getMessage(), correlationId);
+                }
+            }
+        }
+        return evaluateTransaction(transactionName, strong, ifNoneMatch, correlationId, args);
+    }
+
+    /**
+     * Compares entity tags the way If-None-Match requires (weak comparison), so tags that a compressing connector
+     * turned into weak ones still match.
+     */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tags a result by its length and CRC32C, which is hardware-accelerated and so cheap enough to run on every
+     * list response, unlike a cryptographic digest.
+     */
+    private static String contentEtag(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return "\"" + content.length + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * Identifies a view query by its name and arguments, for {@link LedgerView#etag(String)}. Arguments are
+     * separated by a character that cannot occur in them, and a null argument is told apart from an empty one.
+     */
+    private static String resourceKey(String name, String... args) {
+        StringBuilder key = new StringBuilder(name);
+        for (String arg : args) {
+            key.append('\u0000');
+            if (arg != null) {
+                key.append('=').append(arg);
+            }
+        }
+        return key.toString();
+    }
+
+    private static ResponseEntity<Object> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
     }
 
     @PostMapping("/governance")
-    public ResponseEntity<Object> createGovernanceRecord(@RequestBody GovernanceRecord record) throws JsonProcessingException {
+    public ResponseEntity<Object> createGovernanceRecord(@RequestBody GovernanceRecord record,
+                                                         @RequestParam(required = false) String mode,
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws JsonProcessingException {
         String correlationId = generateCorrelationId();
+        List<String> violations = recordValidator.validate(record);
+        if (!violations.isEmpty()) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid governance record", String.join("; ", violations), correlationId);
+        }
         String recordJson = objectMapper.writeValueAsString(record);
-        return submitTransaction("CreateGovernanceRecord", recordJson, correlationId);
+        return submitTransaction("CreateGovernanceRecord", recordJson, record.getIdentifier(), mode, idempotencyKey, correlationId);
     }
 
     @PostMapping("/initledger")
-    public ResponseEntity<Object> initLedger(@RequestBody GovernanceRecord initialRecord) throws JsonProcessingException {
+    public ResponseEntity<Object> initLedger(@RequestBody GovernanceRecord initialRecord,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws JsonProcessingException {
         String correlationId = generateCorrelationId();
+        List<String> violations = recordValidator.validate(initialRecord);
+        if (!violations.isEmpty()) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid governance record", String.join("; ", violations), correlationId);
+        }
         String initialRecordJson = objectMapper.writeValueAsString(initialRecord);
-        return submitTransaction("InitLedger", initialRecordJson, correlationId);
+        return submitTransaction("InitLedger", initialRecordJson, null, null, idempotencyKey, correlationId);
     }
 
     @GetMapping("/governance/{identifier}")
-    public ResponseEntity<Object> readGovernanceRecord(@PathVariable String identifier) {
-        String correlationId = generateCorrelationId();
-        return evaluateTransaction("ReadGovernanceRecord", correlationId, identifier);
+    public ResponseEntity<Object> readGovernanceRecord(@PathVariable String identifier,
+                                                       @RequestParam(required = false) String consistency,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return queryTransaction("ReadGovernanceRecord", consistency, ifNoneMatch,
+                () -> ledgerView.getGovernanceRecord(identifier), identifier);
     }
 
     @GetMapping("/governance")
-    public ResponseEntity<Object> getAllGovernanceRecords() {
-        String correlationId = generateCorrelationId();
-        return evaluateTransaction("GetAllGovernanceRecords", correlationId);
+    public ResponseEntity<Object> getAllGovernanceRecords(@RequestParam(required = false) String consistency,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return queryTransaction("GetAllGovernanceRecords", consistency, ifNoneMatch, ledgerView::getAllGovernanceRecords);
     }
 
     @PostMapping("/trust")
-    public ResponseEntity<Object> createTrustRecord(@RequestBody TrustRecord record) throws JsonProcessingException {
+    public ResponseEntity<Object> createTrustRecord(@RequestBody TrustRecord record,
+                                                    @RequestParam(required = false) String mode,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws JsonProcessingException {
         String correlationId = generateCorrelationId();
+        List<String> violations = recordValidator.validate(record);
+        if (!violations.isEmpty()) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid trust record", String.join("; ", violations), correlationId);
+        }
         String recordJson = objectMapper.writeValueAsString(record);
-        return submitTransaction("CreateTrustRecord", recordJson, correlationId);
+        return submitTransaction("CreateTrustRecord", recordJson, record.getId(), mode, idempotencyKey, correlationId);
+    }
+
+    /**
+     * Creates many trust records in one request. Records are submitted concurrently (or as bulk chaincode
+     * invocations when configured) and each gets its own result; the response is 207 if any record failed.
+     */
+    @PostMapping("/trust/batch")
+    public ResponseEntity<Object> createTrustRecords(@RequestBody List<TrustRecord> records) throws JsonProcessingException {
+        String correlationId = generateCorrelationId();
+        if (records.isEmpty() || records.size() > maxBatchItems) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid batch size",
+                    String.format("A batch must contain between 1 and %d records", maxBatchItems), correlationId);
+        }
+        logRequest("CreateTrustRecord batch of " + records.size(), systemIpAddress, correlationId);
+
+        // Invalid records fail on their own without being submitted; positions maps submitted records back to items.
+        BatchItemResult[] items = new BatchItemResult[records.size()];
+        int[] positions = new int[records.size()];
+        List<String> ids = new ArrayList<>(records.size());
+        List<String> recordJsons = new ArrayList<>(records.size());
+        int failed = 0;
+        for (int i = 0; i < records.size(); i++) {
+            TrustRecord record = records.get(i);
+            List<String> violations = recordValidator.validate(record);
+            if (!violations.isEmpty()) {
+                failed++;
+                items[i] = new BatchItemResult(record != null ? record.getId() : null, HttpStatus.BAD_REQUEST.value(), "Failed",
+                        "Invalid trust record", String.join("; ", violations));
+                continue;
+            }
+            positions[ids.size()] = i;
+            ids.add(record.getId());
+            recordJsons.add(objectMapper.writeValueAsString(record));
+        }
+        List<CompletableFuture<String>> futures = batchSubmitter.submitAll(ids, recordJsons);
+
+        for (int i = 0; i < futures.size(); i++) {
+            String id = ids.get(i);
+            try {
+                String result = futures.get(i).get();
+                evaluateCache.invalidateAfterSubmit("CreateTrustRecord", id);
+                items[positions[i]] = new BatchItemResult(id, HttpStatus.OK.value(), "Success",
+                        "CreateTrustRecord created successfully for ID: " + result, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Error processing batch due to interruption", e.getMessage(), correlationId);
+            } catch (ExecutionException e) {
+                failed++;
+                SubmitFailure failure = SubmitFailure.of(e.getCause());
+                String detailedError = extractChaincodeErrorMessage(e.getCause().getMessage());
+                items[positions[i]] = new BatchItemResult(id, submitFailureStatus("CreateTrustRecord", failure, detailedError).value(),
+                        failure == SubmitFailure.INDETERMINATE ? "Unknown" : "Failed",
+                        submitFailureMessage("CreateTrustRecord", failure, detailedError), detailedError);
+            }
+        }
+        logger.info("CreateTrustRecord batch completed with {} succeeded and {} failed, correlationId: {}",
+                records.size() - failed, failed, correlationId);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("result", failed == 0 ? "Success" : "PartialFailure");
+        response.put("succeeded", records.size() - failed);
+        response.put("failed", failed);
+        response.put("items", Arrays.asList(items));
+        return ResponseEntity.status(failed == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(response);
     }
 
     @GetMapping("/trust/{id}")
-    public ResponseEntity<Object> readTrustRecord(@PathVariable String id) {
-        return evaluateSingleArgTransaction("ReadTrustRecord", id);
+    public ResponseEntity<Object> readTrustRecord(@PathVariable String id,
+                                                  @RequestParam(required = false) String consistency,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return queryTransaction("ReadTrustRecord", consistency, ifNoneMatch, () -> ledgerView.getTrustRecord(id), id);
     }
 
+    /**
+     * Reads many trust records by ID in one request, see {@link #lookupRecords}.
+     */
+    @PostMapping("/trust/lookup")
+    public ResponseEntity<Object> lookupTrustRecords(@RequestBody List<String> ids,
+                                                     @RequestParam(required = false) String consistency) {
+        return lookupRecords("ReadTrustRecord", ids, consistency, ledgerView::getTrustRecord);
+    }
 
-    @GetMapping("/trust")
-    public ResponseEntity<Object> getAllTrustRecords() {
+    /**
+     * Reads many governance records by identifier in one request, see {@link #lookupRecords}.
+     */
+    @PostMapping("/governance/lookup")
+    public ResponseEntity<Object> lookupGovernanceRecords(@RequestBody List<String> identifiers,
+                                                          @RequestParam(required = false) String consistency) {
+        return lookupRecords("ReadGovernanceRecord", identifiers, consistency, ledgerView::getGovernanceRecord);
+    }
+
+    /**
+     * Looks up every distinct key once: from the ledger view or the evaluate cache when possible, otherwise
+     * from the peer with at most {@code trustregistry.lookup.parallelism} reads in flight. Items come back in
+     * request order; the response is 207 if any read failed for a reason other than the record not existing.
+     */
+    private ResponseEntity<Object> lookupRecords(String transactionName, List<String> keys, String consistency,
+                                                 Function<String, Object> viewLookup) {
         String correlationId = generateCorrelationId();
-        return evaluateTransaction("GetAllTrustRecords", correlationId);
+        if (keys.isEmpty() || keys.size() > maxLookupIds || keys.contains(null)) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid lookup",
+                    String.format("A lookup must contain between 1 and %d non-null IDs", maxLookupIds), correlationId);
+        }
+        Set<String> distinctKeys = new LinkedHashSet<>(keys);
+        logRequest(transactionName + " lookup of " + distinctKeys.size(), systemIpAddress, correlationId);
+
+        boolean strong = STRONG_CONSISTENCY.equalsIgnoreCase(consistency);
+        boolean fromView = !strong && ledgerView.isServable();
+        Map<String, Object> localRecords = new HashMap<>();
+        Map<String, CompletableFuture<byte[]>> peerReads = new HashMap<>();
+        Map<String, Long> generations = new HashMap<>();
+        Semaphore permits = new Semaphore(lookupParallelism);
+        try {
+            for (String key : distinctKeys) {
+                Object record = fromView ? viewLookup.apply(key) : null;
+                if (record == null && !strong) {
+                    byte[] cached = evaluateCache.getIfPresent(transactionName, key);
+                    record = cached != null ? readRecord(cached) : null;
+                }
+                if (record != null) {
+                    localRecords.put(key, record);
+                    continue;
+                }
+                permits.acquire();
+                generations.put(key, evaluateCache.generation(transactionName));
+                CompletableFuture<byte[]> read = fabricGatewayClient.evaluateTransactionBytesAsync(transactionName, key);
+                read.whenComplete((result, e) -> permits.release());
+                peerReads.put(key, read);
+            }
+
+            List<LookupItemResult> items = new ArrayList<>(distinctKeys.size());
+            int notFound = 0;
+            int failed = 0;
+            for (String key : distinctKeys) {
+                Object record = localRecords.get(key);
+                if (record == null) {
+                    try {
+                        byte[] result = peerReads.get(key).get();
+                        if (!strong) {
+                            evaluateCache.put(transactionName, generations.get(key), result, key);
+                        }
+                        record = readRecord(result);
+                    } catch (ExecutionException e) {
+                        String detailedError = extractChaincodeErrorMessage(e.getCause().getMessage());
+                        if (detailedError.contains("does not exist")) {
+                            notFound++;
+                            items.add(new LookupItemResult(key, HttpStatus.NOT_FOUND.value(), "NotFound", null, detailedError));
+                        } else {
+                            failed++;
+                            HttpStatus itemStatus = e.getCause() instanceof LedgerOverloadedException
+                                    ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR;
+                            items.add(new LookupItemResult(key, itemStatus.value(), "Failed", null, detailedError));
+                        }
+                        continue;
+                    }
+                }
+                if (record == null) {
+                    notFound++;
+                    items.add(new LookupItemResult(key, HttpStatus.NOT_FOUND.value(), "NotFound", null, "Record not found"));
+                } else {
+                    items.add(new LookupItemResult(key, HttpStatus.OK.value(), "Found", record, null));
+                }
+            }
+            int found = items.size() - notFound - failed;
+            logger.info("{} lookup completed with {} found ({} locally), {} not found and {} failed, correlationId: {}",
+                    transactionName, found, localRecords.size(), notFound, failed, correlationId);
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("result", failed == 0 ? "Success" : "PartialFailure");
+            response.put("found", found);
+            response.put("notFound", notFound);
+            response.put("failed", failed);
+            response.put("items", items);
+            return ResponseEntity.status(failed == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Error processing lookup due to interruption", e.getMessage(), correlationId);
+        } catch (IOException e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    String.format("Error parsing result of '%s'", transactionName), e.getMessage(), correlationId);
+        }
+    }
+
+    /**
+     * Parses a single-record chaincode result, returning null when the chaincode returned nothing.
+     */
+    private JsonNode readRecord(byte[] json) throws IOException {
+        if (isBlank(json)) {
+            return null;
+        }
+        JsonNode record = objectMapper.readTree(json);
+        return record.isNull() ? null : record;
+    }
+
+
+    @GetMapping("/trust")
+    public ResponseEntity<Object> getAllTrustRecords(@RequestParam(required = false) String consistency,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return queryTransaction("GetAllTrustRecords", consistency, ifNoneMatch, ledgerView::getAllTrustRecords);
     }
 
     @GetMapping("/trust/credential_type/{credentialType}")
-    public ResponseEntity<Object> getTrustRecordsByCredentialType(@PathVariable String credentialType) {
-        return evaluateSingleArgTransaction("GetTrustRecordsByCredentialType", credentialType);
+    public ResponseEntity<Object> getTrustRecordsByCredentialType(@PathVariable String credentialType,
+                                                                  @RequestParam(required = false) String consistency,
+                                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return queryTransaction("GetTrustRecordsByCredentialType", consistency, ifNoneMatch,
+                () -> ledgerView.getTrustRecordsByCredentialType(credentialType), credentialType);
+    }
+
+    /**
+     * Filters trust records by any combination of indexed fields (AND). Answered from the ledger view indexes
+     * when available; otherwise the credential type query or the full list is evaluated on the peer and filtered here.
+     */
+    @GetMapping("/trust/search")
+    public ResponseEntity<Object> searchTrustRecords(@RequestParam Map<String, String> params,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Map<TrustRecordField, String> criteria = new EnumMap<>(TrustRecordField.class);
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if ("consistency".equals(param.getKey())) {
+                continue;
+            }
+            TrustRecordField field = TrustRecordField.fromJsonName(param.getKey());
+            if (field == null) {
+                return createErrorResponse(HttpStatus.BAD_REQUEST, "Unsupported search field",
+                        "Unknown search parameter: " + param.getKey(), generateCorrelationId());
+            }
+            criteria.put(field, param.getValue());
+        }
+        if (criteria.size() == 1 && criteria.containsKey(TrustRecordField.CREDENTIAL_TYPE)) {
+            String credentialType = criteria.get(TrustRecordField.CREDENTIAL_TYPE);
+            return queryTransaction("GetTrustRecordsByCredentialType", params.get("consistency"), ifNoneMatch,
+                    () -> ledgerView.getTrustRecordsByCredentialType(credentialType), credentialType);
+        }
+
+        String correlationId = generateCorrelationId();
+        boolean strong = STRONG_CONSISTENCY.equalsIgnoreCase(params.get("consistency"));
+        try {
+            if (!strong && ledgerView.isServable()) {
+                String[] terms = new String[criteria.size()];
+                int i = 0;
+                // EnumMap iterates in declaration order, so the same criteria always give the same key.
+                for (Map.Entry<TrustRecordField, String> criterion : criteria.entrySet()) {
+                    terms[i++] = criterion.getKey().name() + ":" + criterion.getValue();
+                }
+                String etag = ledgerView.etag(resourceKey("SearchTrustRecords", terms));
+                if (etagMatches(ifNoneMatch, etag)) {
+                    return notModified(etag);
+                }
+                logRequest("SearchTrustRecords (ledger view)", systemIpAddress, correlationId);
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag)
+                        .body(objectMapper.writeValueAsBytes(ledgerView.findTrustRecords(criteria)));
+            }
+            logRequest("SearchTrustRecords", systemIpAddress, correlationId);
+            List<TrustRecord> matches = new ArrayList<>();
+            for (TrustRecord record : readTrustRecords(evaluate("GetAllTrustRecords", strong))) {
+                if (matchesAll(record, criteria)) {
+                    matches.add(record);
+                }
+            }
+            byte[] json = objectMapper.writeValueAsBytes(matches);
+            String etag = contentEtag(json);
+            if (etagMatches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag).body(json);
+        } catch (LedgerOverloadedException e) {
+            return overloadedResponse("GetAllTrustRecords", e, correlationId);
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing trust record search",
+                    extractChaincodeErrorMessage(e.getMessage()), correlationId);
+        }
+    }
+
+    private static boolean matchesAll(TrustRecord record, Map<TrustRecordField, String> criteria) {
+        for (Map.Entry<TrustRecordField, String> criterion : criteria.entrySet()) {
+            if (!criterion.getValue().equals(criterion.getKey().valueOf(record))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the trust records whose validity window contains {@code at} (ISO-8601 with offset, default now),
+     * optionally of one credential type. Answered from the ledger view's interval index when available; otherwise
+     * the records are evaluated on the peer and filtered here, so only the matches are sent to the client.
+     */
+    @GetMapping("/trust/valid")
+    public ResponseEntity<Object> getTrustRecordsValidAt(@RequestParam(required = false) String at,
+                                                         @RequestParam(name = "credential_type", required = false) String credentialType,
+                                                         @RequestParam(required = false) String consistency,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String correlationId = generateCorrelationId();
+        long atMillis;
+        try {
+            atMillis = at == null ? System.currentTimeMillis() : OffsetDateTime.parse(at).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid timestamp",
+                    "at must be an ISO-8601 date-time with offset, e.g. 2025-01-01T00:00:00Z", correlationId);
+        }
+        boolean strong = STRONG_CONSISTENCY.equalsIgnoreCase(consistency);
+        try {
+            if (!strong && ledgerView.isServable()) {
+                logRequest("GetTrustRecordsValidAt (ledger view)", systemIpAddress, correlationId);
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+                // Without an explicit time the result depends on the clock, not just the view, so it gets no tag.
+                if (at != null) {
+                    String etag = ledgerView.etag(resourceKey("GetTrustRecordsValidAt", Long.toString(atMillis), credentialType));
+                    if (etagMatches(ifNoneMatch, etag)) {
+                        return notModified(etag);
+                    }
+                    response.eTag(etag);
+                }
+                return response.body(objectMapper.writeValueAsBytes(ledgerView.findTrustRecordsValidAt(atMillis, credentialType)));
+            }
+            logRequest("GetTrustRecordsValidAt", systemIpAddress, correlationId);
+            byte[] json = credentialType == null ? evaluate("GetAllTrustRecords", strong)
+                    : evaluate("GetTrustRecordsByCredentialType", strong, credentialType);
+            List<TrustRecord> matches = new ArrayList<>();
+            for (TrustRecord record : readTrustRecords(json)) {
+                ValidityWindow window = ValidityWindow.of(record);
+                if (window != null && window.contains(atMillis)) {
+                    matches.add(record);
+                }
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(objectMapper.writeValueAsBytes(matches));
+        } catch (LedgerOverloadedException e) {
+            return overloadedResponse(credentialType == null ? "GetAllTrustRecords" : "GetTrustRecordsByCredentialType",
+                    e, correlationId);
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing validity query",
+                    extractChaincodeErrorMessage(e.getMessage()), correlationId);
+        }
+    }
+
+    @GetMapping("/trust/page")
+    public ResponseEntity<Object> getTrustRecordsPage(@RequestParam(name = "page_size", defaultValue = "100") int pageSize,
+                                                      @RequestParam(required = false) String bookmark) {
+        return pageRecords(trustPaginationFunction, pageSize, bookmark, ledgerView::pageTrustRecords, TrustRecord::getId);
+    }
+
+    @GetMapping("/governance/page")
+    public ResponseEntity<Object> getGovernanceRecordsPage(@RequestParam(name = "page_size", defaultValue = "100") int pageSize,
+                                                           @RequestParam(required = false) String bookmark) {
+        return pageRecords(governancePaginationFunction, pageSize, bookmark, ledgerView::pageGovernanceRecords,
+                GovernanceRecord::getIdentifier);
+    }
+
+    @GetMapping(value = "/trust/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTrustRecords(@RequestParam(required = false) String consistency) {
+        return streamRecords(trustPaginationFunction, consistency, ledgerView::trustRecords);
+    }
+
+    @GetMapping(value = "/governance/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamGovernanceRecords(@RequestParam(required = false) String consistency) {
+        return streamRecords(governancePaginationFunction, consistency, ledgerView::governanceRecords);
+    }
+
+    /**
+     * Server-sent events of committed trust and governance record writes, optionally only those of one credential
+     * type and/or governance identifier. A reconnecting client resumes after its {@code Last-Event-ID}; a new one
+     * may start from {@code from_block}. Errors are status-only, since the client expects an event stream: 410 when
+     * the position is no longer retained (re-read the list endpoints, then subscribe without a position), 503 when
+     * the feed is disabled, full, or not yet connected to the event stream.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(name = "credential_type", required = false) String credentialType,
+                                                    @RequestParam(required = false) String identifier,
+                                                    @RequestParam(name = "from_block", required = false) Long fromBlock,
+                                                    @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        String correlationId = generateCorrelationId();
+        if (!changeFeed.isEnabled()) {
+            logger.warn("Change feed requested but the ledger view is disabled, correlationId: {}", correlationId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        ChangeFeed.Cursor cursor = null;
+        if (lastEventId != null && !lastEventId.isEmpty()) {
+            cursor = ChangeFeed.Cursor.afterEvent(lastEventId);
+        } else if (fromBlock != null) {
+            cursor = fromBlock < 0 ? null : ChangeFeed.Cursor.fromBlock(fromBlock);
+        }
+        if (cursor == null && (lastEventId != null && !lastEventId.isEmpty() || fromBlock != null)) {
+            logger.warn("Invalid change feed position (Last-Event-ID: {}, from_block: {}), correlationId: {}",
+                    lastEventId, fromBlock, correlationId);
+            return ResponseEntity.badRequest().build();
+        }
+        if (cursor != null && !changeFeed.isStarted()) {
+            // Right after startup the feed cannot tell yet whether the position is retained.
+            logger.info("Change feed not connected to the event stream yet, correlationId: {}", correlationId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        logRequest("StreamChanges", systemIpAddress, correlationId);
+        ChangeFeed.Subscription subscription = changeFeed.subscribe(credentialType, identifier, cursor);
+        if (subscription.isFull()) {
+            logger.warn("Change feed at its subscriber limit, correlationId: {}", correlationId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        if (subscription.isGone()) {
+            logger.info("Change feed position (Last-Event-ID: {}, from_block: {}) is no longer retained, correlationId: {}",
+                    lastEventId, fromBlock, correlationId);
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-cache").body(subscription.getEmitter());
+    }
+
+    /**
+     * Returns one page of records and an opaque bookmark for the next page (empty on the last page).
+     * Pages come from the ledger view when it is servable, otherwise from the chaincode's paginated range query.
+     * The bookmark remembers which source issued it so an iteration never mixes the two.
+     */
+    private <T> ResponseEntity<Object> pageRecords(String paginationFunction, int pageSize, String bookmark,
+                                                   BiFunction<String, Integer, List<T>> viewPage, Function<T, String> keyOf) {
+        String correlationId = generateCorrelationId();
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid page size",
+                    String.format("page_size must be between 1 and %d", maxPageSize), correlationId);
+        }
+        String[] cursor = decodeBookmark(bookmark);
+        if (cursor == null) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid bookmark", "Bookmark could not be decoded", correlationId);
+        }
+        boolean fromView = cursor[0] == null ? ledgerView.isServable() : VIEW_BOOKMARK.equals(cursor[0]);
+        if (fromView && !ledgerView.isServable()) {
+            return createErrorResponse(HttpStatus.GONE, "Bookmark expired",
+                    "The ledger view that issued this bookmark is not available; restart the iteration", correlationId);
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        try {
+            if (fromView) {
+                logRequest(paginationFunction + " (ledger view)", systemIpAddress, correlationId);
+                List<T> records = viewPage.apply(cursor[1], pageSize);
+                page.put("records", records);
+                page.put("fetched_records_count", records.size());
+                page.put("bookmark", records.size() < pageSize ? ""
+                        : encodeBookmark(VIEW_BOOKMARK, keyOf.apply(records.get(records.size() - 1))));
+            } else {
+                logRequest(paginationFunction, systemIpAddress, correlationId);
+                JsonNode result = evaluatePage(paginationFunction, pageSize, cursor[1]);
+                JsonNode records = result.path("records");
+                String nextBookmark = result.path("bookmark").asText("");
+                page.put("records", records);
+                page.put("fetched_records_count", records.size());
+                page.put("bookmark", records.size() < pageSize || nextBookmark.isEmpty() ? ""
+                        : encodeBookmark(PEER_BOOKMARK, nextBookmark));
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(objectMapper.writeValueAsBytes(page));
+        } catch (LedgerOverloadedException e) {
+            return overloadedResponse(paginationFunction, e, correlationId);
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    String.format("Error processing transaction '%s'", paginationFunction),
+                    extractChaincodeErrorMessage(e.getMessage()), correlationId);
+        }
+    }
+
+    /**
+     * Streams every record as newline-delimited JSON, one record at a time from the ledger view, or one
+     * chaincode page at a time from the peer, so memory use does not grow with the size of the registry.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> streamRecords(String paginationFunction, String consistency,
+                                                                    Supplier<Iterable<T>> viewRecords) {
+        String correlationId = generateCorrelationId();
+        boolean fromView = !STRONG_CONSISTENCY.equalsIgnoreCase(consistency) && ledgerView.isServable();
+        logRequest(paginationFunction + (fromView ? " stream (ledger view)" : " stream"), systemIpAddress, correlationId);
+
+        // Let the generator's buffer decide when bytes reach the socket instead of flushing per record.
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            // Runs on the async request executor, outside the filter that populated the MDC.
+            MDC.put(CorrelationIdFilter.MDC_KEY, correlationId);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                if (fromView) {
+                    for (T record : viewRecords.get()) {
+                        writer.writeValue(generator, record);
+                        generator.writeRaw('\n');
+                    }
+                } else {
+                    String bookmark = "";
+                    do {
+                        JsonNode result = evaluatePage(paginationFunction, streamPageSize, bookmark);
+                        JsonNode records = result.path("records");
+                        for (JsonNode record : records) {
+                            writer.writeValue(generator, record);
+                            generator.writeRaw('\n');
+                        }
+                        generator.flush();
+                        bookmark = records.size() < streamPageSize ? "" : result.path("bookmark").asText("");
+                    } while (!bookmark.isEmpty());
+                }
+            } catch (IOException e) {
+                logger.warn("Stream for {} aborted, correlationId: {}: {}", paginationFunction, correlationId, e.getMessage());
+                throw e;
+            } catch (Exception e) {
+                logger.error("Stream for {} failed, correlationId: {}", paginationFunction, correlationId, e);
+                throw new IOException(extractChaincodeErrorMessage(e.getMessage()), e);
+            } finally {
+                MDC.remove(CorrelationIdFilter.MDC_KEY);
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    private JsonNode evaluatePage(String paginationFunction, int pageSize, String bookmark) throws Exception {
+        byte[] result = fabricGatewayClient.evaluateTransactionBytes(paginationFunction, Integer.toString(pageSize),
+                bookmark == null ? "" : bookmark);
+        return objectMapper.readTree(result);
+    }
+
+    private static String encodeBookmark(String source, String position) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((source + ":" + position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns {source, position}; both null for the first page, or null when the bookmark is malformed.
+     */
+    private static String[] decodeBookmark(String bookmark) {
+        if (bookmark == null || bookmark.isEmpty()) {
+            return new String[]{null, null};
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(bookmark), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 0) {
+                return null;
+            }
+            String source = decoded.substring(0, separator);
+            if (!VIEW_BOOKMARK.equals(source) && !PEER_BOOKMARK.equals(source)) {
+                return null;
+            }
+            return new String[]{source, decoded.substring(separator + 1)};
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @GetMapping("/tx/{txId}/status")
+    public ResponseEntity<Object> getTransactionStatus(@PathVariable String txId) {
+        TransactionStatus status = commitStatusTracker.getStatus(txId);
+        if (status == null) {
+            return createErrorResponse(HttpStatus.NOT_FOUND, "Transaction not found",
+                    "No asynchronously submitted transaction is tracked with ID: " + txId, generateCorrelationId());
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Object> getCacheStats() {
+        return ResponseEntity.ok(evaluateCache.stats());
     }
 }
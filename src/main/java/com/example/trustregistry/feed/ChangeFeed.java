@@ -0,0 +1,460 @@
+package com.example.trustregistry.feed;
+
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent events feed of committed trust and governance record writes, published by the ledger event listener
+ * after each write is applied to the ledger view, so a client reading the view after an event sees its record.
+ * <p>
+ * Each event's ID is {@code <block number>:<transaction ID>}. Recent events are kept in a bounded history, so a
+ * subscriber that reconnects with {@code Last-Event-ID} (or asks for {@code from_block}) is replayed what it
+ * missed; a position older than the history cannot be resumed and the client must re-read the list endpoints.
+ * <p>
+ * Every subscriber has a bounded queue drained by a dispatch task on a bounded pool, taking a limited batch per
+ * turn, so a slow connection never blocks the listener and cannot monopolize a dispatch thread. A subscriber whose
+ * queue fills is disconnected; a standard SSE client then reconnects with its last event ID and is replayed the
+ * rest from the history.
+ * <p>
+ * The feed is create-only: the chaincode has no update, status or revoke transactions, and emits events only for
+ * {@code CreateTrustRecord} and {@code CreateGovernanceRecord}, which the listener publishes here. Should the
+ * chaincode gain other writes, the listener must apply their events to the view and publish them before they appear.
+ */
+@Component
+public class ChangeFeed implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private static final Object HEARTBEAT = new Object();
+    // Items one dispatch turn sends before yielding its thread to other subscribers.
+    private static final int DISPATCH_BATCH = 64;
+
+    @Value("${trustregistry.view.enabled:false}")
+    private boolean enabled;
+
+    @Value("${trustregistry.feed.history-size:10000}")
+    private int historySize;
+
+    @Value("${trustregistry.feed.subscriber-buffer:1000}")
+    private int subscriberBuffer;
+
+    @Value("${trustregistry.feed.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${trustregistry.feed.dispatch-threads:16}")
+    private int dispatchThreads;
+
+    @Value("${trustregistry.feed.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${trustregistry.feed.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final ObjectMapper objectMapper;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this: the history, the block it is complete from (-1 until the event stream first connects or,
+    // when the stream's start block is not known, until the first event),
+    // and the transactions seen in the latest block, which the listener replays in full after a reconnect.
+    private final Deque<ChangeEvent> history = new ArrayDeque<>();
+    private long completeFromBlock = -1;
+    private long lastBlockNumber = -1;
+    private final Set<String> lastBlockTransactions = new HashSet<>();
+
+    private ExecutorService dispatcher;
+    private ScheduledExecutorService heartbeats;
+    private Counter laggingDisconnects;
+
+    public ChangeFeed(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        // At most one queued task per subscriber, so the queue is bounded by max-subscribers.
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "change-feed-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        dispatcher = pool;
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::heartbeat),
+                heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        logger.info("Change feed initialized (historySize: {}, subscriberBuffer: {}, maxSubscribers: {}, dispatchThreads: {})",
+                historySize, subscriberBuffer, maxSubscribers, dispatchThreads);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trustregistry.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(registry);
+        laggingDisconnects = Counter.builder("trustregistry.feed.disconnects")
+                .description("Change feed subscribers disconnected for falling behind")
+                .tag("reason", "lagging")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns true once the history has a known starting block, before which no position can be resumed.
+     */
+    public synchronized boolean isStarted() {
+        return completeFromBlock >= 0;
+    }
+
+    /**
+     * Called by the listener every time the event stream (re)connects, with the first block it will deliver in
+     * full. Only the first call matters: reconnects resume from a block already published.
+     */
+    public synchronized void streamStarted(long blockNumber) {
+        if (completeFromBlock < 0) {
+            completeFromBlock = blockNumber;
+        }
+    }
+
+    public void publishTrustRecord(long blockNumber, String transactionId, String eventName, TrustRecord record) {
+        publish(blockNumber, transactionId, eventName, record, record.getCredentialType(), record.getIdentifier());
+    }
+
+    public void publishGovernanceRecord(long blockNumber, String transactionId, String eventName, GovernanceRecord record) {
+        publish(blockNumber, transactionId, eventName, record, null, record.getIdentifier());
+    }
+
+    private synchronized void publish(long blockNumber, String transactionId, String eventName, Object record,
+                                      String credentialType, String identifier) {
+        if (!enabled || blockNumber < lastBlockNumber) {
+            return;
+        }
+        if (blockNumber > lastBlockNumber) {
+            lastBlockNumber = blockNumber;
+            lastBlockTransactions.clear();
+        }
+        if (!lastBlockTransactions.add(transactionId)) {
+            return;
+        }
+        if (completeFromBlock < 0) {
+            completeFromBlock = blockNumber;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("block_number", blockNumber);
+        data.put("transaction_id", transactionId);
+        data.put("event", eventName);
+        data.put("record", record);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            logger.error("Unable to serialize change event for transaction {} in block {}", transactionId, blockNumber, e);
+            return;
+        }
+        // Serialized once here rather than once per subscriber.
+        ChangeEvent event = new ChangeEvent(blockNumber, transactionId, eventName, credentialType, identifier, json);
+        history.addLast(event);
+        if (history.size() > historySize) {
+            ChangeEvent evicted = history.removeFirst();
+            // Later events of the evicted one's block may remain, but that block can no longer be replayed whole.
+            completeFromBlock = Math.max(completeFromBlock, evicted.blockNumber + 1);
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Opens a subscription that receives events matching the filters (null matches anything), starting after
+     * {@code cursor} (null for new events only). Fails when the feed is at its subscriber limit, or when the cursor
+     * is older than the history.
+     */
+    public synchronized Subscription subscribe(String credentialType, String identifier, Cursor cursor) {
+        // Checked under the same lock as the registration below, so concurrent subscribes cannot overshoot it.
+        if (subscribers.size() >= maxSubscribers) {
+            return Subscription.FULL;
+        }
+        List<ChangeEvent> replay = new ArrayList<>();
+        if (cursor != null) {
+            // Resume right after the named transaction; failing that, replay its whole block, which may repeat
+            // events the client already has but never skips one.
+            boolean found = false;
+            if (cursor.transactionId != null) {
+                for (ChangeEvent event : history) {
+                    if (found) {
+                        replay.add(event);
+                    } else if (event.blockNumber == cursor.blockNumber && event.transactionId.equals(cursor.transactionId)) {
+                        found = true;
+                    }
+                }
+            }
+            if (!found) {
+                if (completeFromBlock < 0 || cursor.blockNumber < completeFromBlock) {
+                    return Subscription.GONE;
+                }
+                for (ChangeEvent event : history) {
+                    if (event.blockNumber >= cursor.blockNumber) {
+                        replay.add(event);
+                    }
+                }
+            }
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Room for the whole replay on top of the live buffer; the history bounds it.
+        Subscriber subscriber = new Subscriber(emitter, credentialType, identifier, replay.size() + subscriberBuffer);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        for (ChangeEvent event : replay) {
+            subscriber.offer(event);
+        }
+        // Registered while holding the lock, so no event falls between the replay and the live stream.
+        if (!subscriber.closed) {
+            subscribers.add(subscriber);
+        }
+        return new Subscription(emitter, false, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.disconnect();
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * The outcome of {@link #subscribe}: the emitter to return, or whether the feed was full or the position is
+     * no longer retained.
+     */
+    public static final class Subscription {
+        private static final Subscription FULL = new Subscription(null, true, false);
+        private static final Subscription GONE = new Subscription(null, false, true);
+
+        private final SseEmitter emitter;
+        private final boolean full;
+        private final boolean gone;
+
+        private Subscription(SseEmitter emitter, boolean full, boolean gone) {
+            this.emitter = emitter;
+            this.full = full;
+            this.gone = gone;
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        public boolean isFull() {
+            return full;
+        }
+
+        public boolean isGone() {
+            return gone;
+        }
+    }
+
+    /**
+     * A resume position: after the event with this block number and transaction ID, or from the start of the
+     * block when the transaction ID is null.
+     */
+    public static final class Cursor {
+        private final long blockNumber;
+        private final String transactionId;
+
+        private Cursor(long blockNumber, String transactionId) {
+            this.blockNumber = blockNumber;
+            this.transactionId = transactionId;
+        }
+
+        public static Cursor fromBlock(long blockNumber) {
+            return new Cursor(blockNumber, null);
+        }
+
+        /**
+         * Parses an event ID as sent back in {@code Last-Event-ID}, returning null when it is malformed.
+         */
+        public static Cursor afterEvent(String eventId) {
+            int separator = eventId.indexOf(':');
+            if (separator <= 0 || separator == eventId.length() - 1) {
+                return null;
+            }
+            try {
+                long blockNumber = Long.parseLong(eventId.substring(0, separator));
+                return blockNumber < 0 ? null : new Cursor(blockNumber, eventId.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class ChangeEvent {
+        private final long blockNumber;
+        private final String transactionId;
+        private final String eventName;
+        private final String credentialType;
+        private final String identifier;
+        private final String json;
+
+        ChangeEvent(long blockNumber, String transactionId, String eventName, String credentialType, String identifier,
+                    String json) {
+            this.blockNumber = blockNumber;
+            this.transactionId = transactionId;
+            this.eventName = eventName;
+            this.credentialType = credentialType;
+            this.identifier = identifier;
+            this.json = json;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String credentialType;
+        private final String identifier;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        // Set when the feed ends the connection; only the dispatch task touches the emitter, since a send
+        // blocked on a slow socket holds the emitter's lock.
+        private volatile boolean disconnecting;
+        private volatile boolean completed;
+
+        Subscriber(SseEmitter emitter, String credentialType, String identifier, int capacity) {
+            this.emitter = emitter;
+            this.credentialType = credentialType;
+            this.identifier = identifier;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(ChangeEvent event) {
+            if (closed || !matches(event)) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.debug("Change feed subscriber fell {} events behind; disconnecting", subscriberBuffer);
+                if (laggingDisconnects != null) {
+                    laggingDisconnects.increment();
+                }
+                disconnect();
+                return;
+            }
+            schedule();
+        }
+
+        private boolean matches(ChangeEvent event) {
+            return (credentialType == null || credentialType.equals(event.credentialType))
+                    && (identifier == null || identifier.equals(event.identifier));
+        }
+
+        void heartbeat() {
+            // Skipped when the queue is full: the subscriber has events pending anyway.
+            if (!closed && queue.offer(HEARTBEAT)) {
+                schedule();
+            }
+        }
+
+        void disconnect() {
+            disconnecting = true;
+            close();
+            queue.clear();
+            schedule();
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                for (int sent = 0; sent < DISPATCH_BATCH && !closed && (item = queue.poll()) != null; sent++) {
+                    send(item);
+                }
+                if (disconnecting && !completed) {
+                    completed = true;
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed.
+                completed = true;
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // Work that arrived after the checks above but before the flag was cleared would otherwise wait.
+            if ((disconnecting && !completed) || (!closed && !queue.isEmpty())) {
+                schedule();
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            ChangeEvent event = (ChangeEvent) item;
+            emitter.send(SseEmitter.event()
+                    .id(event.blockNumber + ":" + event.transactionId)
+                    .name(event.eventName)
+                    .data(event.json, MediaType.APPLICATION_JSON));
+        }
+    }
+}
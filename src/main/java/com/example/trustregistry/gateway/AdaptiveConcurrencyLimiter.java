@@ -0,0 +1,81 @@
+package com.example.trustregistry.gateway;
+
+import io.grpc.Status;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD limit on the number of concurrent calls to the peer.
+ * <p>
+ * The limit grows by one per limit's worth of fast calls while it is being used, and shrinks by
+ * {@code backoffRatio} when a call is slower than the latency threshold or fails with a transport or overload
+ * error. Shrinking happens at most once per threshold interval, so one burst of slow calls counts as one signal.
+ * Callers over the limit are rejected instead of queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis,
+                                      double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - latencyThresholdNanos;
+    }
+
+    /**
+     * Takes a slot if the limit allows it; every successful call must be paired with {@link #release}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Returns the slot and adjusts the limit. {@code failure} is null for a successful call.
+     */
+    public synchronized void release(long latencyNanos, Status.Code failure) {
+        boolean saturated = inFlight * 2 >= (int) limit;
+        inFlight--;
+        if (latencyNanos > latencyThresholdNanos || isOverloadSignal(failure)) {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (failure == null && saturated) {
+            // Only grow while the limit is actually in use; idle periods say nothing about capacity.
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private static boolean isOverloadSignal(Status.Code failure) {
+        return failure == Status.Code.DEADLINE_EXCEEDED
+                || failure == Status.Code.RESOURCE_EXHAUSTED
+                || failure == Status.Code.UNAVAILABLE;
+    }
+}
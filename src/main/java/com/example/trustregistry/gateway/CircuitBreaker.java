@@ -0,0 +1,102 @@
+package com.example.trustregistry.gateway;
+
+/**
+ * Circuit breaker for one peer endpoint, shared by every channel to that endpoint.
+ * <p>
+ * Opens after {@code failureThreshold} consecutive transport failures and rejects calls for {@code openMillis}.
+ * It then lets a single probe call through (half-open): success closes the circuit, another transport failure
+ * opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilMillis;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String endpoint, int failureThreshold, long openMillis) {
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    synchronized long getOpenUntilMillis() {
+        return openUntilMillis;
+    }
+
+    /**
+     * Claims the single probe call once the open period is over. Returns false while open, while another probe
+     * is in flight, and when the circuit is closed (no probe is needed).
+     */
+    synchronized boolean tryAcquireProbe(long nowMillis) {
+        if (state == State.OPEN && nowMillis >= openUntilMillis) {
+            state = State.HALF_OPEN;
+        }
+        if (state != State.HALF_OPEN || probeInFlight) {
+            return false;
+        }
+        probeInFlight = true;
+        return true;
+    }
+
+    /**
+     * Records a call the peer answered, including chaincode errors: the endpoint itself is healthy.
+     * Returns true if this closed the circuit.
+     */
+    synchronized boolean onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probeInFlight = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a call that ended without telling anything about the endpoint, e.g. a cancelled hedge loser.
+     */
+    synchronized void onAbandoned() {
+        probeInFlight = false;
+    }
+
+    /**
+     * Records a transport failure. Returns true if this opened the circuit.
+     */
+    synchronized boolean onFailure() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            open();
+            return true;
+        }
+        if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        consecutiveFailures = 0;
+        openUntilMillis = System.currentTimeMillis() + openMillis;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.trustregistry.gateway;
+
+import org.hyperledger.fabric.client.Status;
+
+/**
+ * Raised when a submitted transaction is committed but marked invalid by the peers.
+ */
+public class CommitFailedException extends Exception {
+
+    public CommitFailedException(Status status) {
+        super(String.format("Transaction %s failed to commit with status code %s",
+                status.getTransactionId(), status.getCode()));
+    }
+}
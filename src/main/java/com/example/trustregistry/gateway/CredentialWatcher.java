@@ -0,0 +1,85 @@
+package com.example.trustregistry.gateway;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the directories holding the client identity and TLS material and runs a callback once they have been
+ * quiet for the debounce interval after a change. Rotation tools usually write several files (or swap a symlink,
+ * as Kubernetes secret volumes do), so reacting to the first event would load a half-written set.
+ */
+public class CredentialWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialWatcher.class);
+
+    private final WatchService watchService;
+    private final long debounceMillis;
+    private final Runnable onChange;
+    private final Thread thread;
+
+    public CredentialWatcher(Collection<Path> directories, long debounceMillis, Runnable onChange) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+        Set<Path> unique = new LinkedHashSet<>();
+        for (Path directory : directories) {
+            unique.add(directory.toAbsolutePath().normalize());
+        }
+        for (Path directory : unique) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            logger.info("Watching {} for credential changes", directory);
+        }
+        this.thread = new Thread(this::run, "credential-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                drain(watchService.take());
+                // Wait for the writes to settle before reloading.
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    drain(key);
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    logger.error("Credential reload failed: {}", e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed on shutdown.
+        }
+    }
+
+    private static void drain(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.trustregistry.gateway;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedged calls: when the first attempt has not answered within the recent latency percentile for its key,
+ * a second attempt is started and whichever answers first wins; the other one is cancelled (interrupted).
+ * <p>
+ * The first attempt runs on the calling thread and only hedges go to the executor, so a caller never waits for a
+ * pool thread to start its own call; with a bounded executor, hedges it cannot take are simply not sent.
+ * <p>
+ * Keys with fewer than {@code minSamples} recorded latencies are not hedged, so the threshold always reflects
+ * observed behaviour rather than a guess.
+ */
+public class Hedger {
+
+    /**
+     * One attempt of a hedged call; {@code hedge} is false for the first attempt and true for the duplicate.
+     */
+    @FunctionalInterface
+    public interface Attempt<V> {
+        V run(boolean hedge) throws Exception;
+    }
+
+    private static final int MIN_SAMPLES = 32;
+
+    private final Executor executor;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int window;
+    private final long maxWaitNanos;
+    private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxWaitMillis how long a failed first attempt waits for a hedge in flight, normally the call deadline
+     */
+    public Hedger(Executor executor, double percentile, long minDelayMillis, int window, long maxWaitMillis) {
+        this.executor = executor;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.window = window;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    /**
+     * Records the latency of an attempt that completed normally.
+     */
+    public void record(String key, long latencyNanos) {
+        latencies.computeIfAbsent(key, k -> new LatencyWindow(window)).record(latencyNanos);
+    }
+
+    /**
+     * The delay after which a call for {@code key} is hedged, or -1 while there are too few samples.
+     */
+    public long hedgeDelayNanos(String key) {
+        LatencyWindow latencyWindow = latencies.get(key);
+        long threshold = latencyWindow == null ? -1 : latencyWindow.percentile(percentile);
+        return threshold < 0 ? -1 : Math.max(minDelayNanos, threshold);
+    }
+
+    /**
+     * Runs the call on the calling thread, hedging it on the executor if it is slower than the latency percentile
+     * of its key. A hedge that succeeds first interrupts the calling thread's attempt; the interrupt is cleared
+     * before this returns.
+     */
+    public <V> V call(String key, Attempt<V> attempt, Runnable onHedge) throws Exception {
+        long delayNanos = hedgeDelayNanos(key);
+        if (delayNanos < 0) {
+            return attempt.run(false);
+        }
+        Race race = new Race(Thread.currentThread());
+        FutureTask<V> hedge = new FutureTask<>(() -> {
+            race.hedgeStarted = true;
+            onHedge.run();
+            V result = attempt.run(true);
+            race.hedgeSucceeded();
+            return result;
+        });
+        Executor submitter = task -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // No capacity for a duplicate; the first attempt carries on alone.
+            }
+        };
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, submitter).execute(hedge);
+        long deadline = System.nanoTime() + delayNanos + maxWaitNanos;
+        try {
+            V result;
+            try {
+                result = attempt.run(false);
+            } catch (Exception e) {
+                if (!race.firstFinished()) {
+                    race.clearInterrupt();
+                    return hedge.get();
+                }
+                if (!race.hedgeStarted) {
+                    throw e;
+                }
+                // The first attempt failed; the hedge may still succeed.
+                try {
+                    return hedge.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException second) {
+                    throw unwrap(second);
+                } catch (TimeoutException timeout) {
+                    throw e;
+                }
+            }
+            if (!race.firstFinished()) {
+                race.clearInterrupt();
+            }
+            return result;
+        } finally {
+            hedge.cancel(true);
+        }
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof Exception ? (Exception) cause : e;
+    }
+
+    /**
+     * Decides which attempt finished first. The hedge interrupts the caller only if it wins, and the caller waits
+     * for that interrupt to land before clearing it, so it can never leak into whatever the thread does next.
+     */
+    private static final class Race {
+        private static final int RUNNING = 0;
+        private static final int FIRST_FINISHED = 1;
+        private static final int INTERRUPTING = 2;
+        private static final int INTERRUPTED = 3;
+
+        private final Thread caller;
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private volatile boolean hedgeStarted;
+
+        private Race(Thread caller) {
+            this.caller = caller;
+        }
+
+        boolean firstFinished() {
+            return state.compareAndSet(RUNNING, FIRST_FINISHED);
+        }
+
+        void hedgeSucceeded() {
+            if (state.compareAndSet(RUNNING, INTERRUPTING)) {
+                caller.interrupt();
+                state.set(INTERRUPTED);
+            }
+        }
+
+        void clearInterrupt() {
+            while (state.get() == INTERRUPTING) {
+                Thread.onSpinWait();
+            }
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Ring buffer of the most recent latencies; the percentile is recomputed every {@code size / 8} samples.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private final int recomputeEvery;
+        private int next;
+        private int count;
+        private int sinceRecompute;
+        private double cachedPercentile = Double.NaN;
+        private long cachedValue = -1;
+
+        private LatencyWindow(int size) {
+            this.samples = new long[size];
+            this.recomputeEvery = Math.max(1, size / 8);
+        }
+
+        synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            sinceRecompute++;
+        }
+
+        synchronized long percentile(double percentile) {
+            if (count < Math.min(MIN_SAMPLES, samples.length)) {
+                return -1;
+            }
+            if (cachedValue < 0 || sinceRecompute >= recomputeEvery || percentile != cachedPercentile) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                cachedValue = sorted[Math.max(0, Math.min(count - 1, (int) Math.ceil(percentile * count) - 1))];
+                cachedPercentile = percentile;
+                sinceRecompute = 0;
+            }
+            return cachedValue;
+        }
+    }
+}
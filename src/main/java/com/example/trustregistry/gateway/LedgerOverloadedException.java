@@ -0,0 +1,26 @@
+package com.example.trustregistry.gateway;
+
+/**
+ * Thrown instead of calling the peer when the concurrency limit for the call type, or the queue of the ledger
+ * executor, is exhausted.
+ */
+public class LedgerOverloadedException extends Exception {
+
+    private final long retryAfterSeconds;
+
+    public LedgerOverloadedException(String type, String functionName, int limit, long retryAfterSeconds) {
+        // No stack trace: rejections are expected under load and should cost less than the call they replace.
+        super(String.format("Too many concurrent %s calls (limit %d), %s was not sent to the peer", type, limit, functionName),
+                null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public LedgerOverloadedException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.trustregistry.gateway;
+
+import io.grpc.ManagedChannel;
+import org.hyperledger.fabric.client.Contract;
+import org.hyperledger.fabric.client.Gateway;
+import org.hyperledger.fabric.client.Network;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One gRPC channel to a peer plus the Gateway, Network and Contract built on it, with the load state the
+ * {@link PeerConnectionPool} balances on and the circuit breaker of its endpoint.
+ */
+public class PeerConnection {
+
+    // Weight of the newest sample in the latency moving average.
+    private static final double LATENCY_ALPHA = 0.2;
+
+    private final String endpoint;
+    private final ManagedChannel channel;
+    private final Gateway gateway;
+    private final Network network;
+    private final Contract contract;
+    private final CircuitBreaker circuitBreaker;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    // Submitted transactions whose commit status has not been read yet; not load, but the connection must stay open.
+    private final AtomicInteger pinned = new AtomicInteger();
+    private volatile double latencyEwmaNanos;
+
+    public PeerConnection(String endpoint, ManagedChannel channel, Gateway gateway, Network network, Contract contract,
+                          CircuitBreaker circuitBreaker) {
+        this.endpoint = endpoint;
+        this.channel = channel;
+        this.gateway = gateway;
+        this.network = network;
+        this.contract = contract;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public ManagedChannel getChannel() {
+        return channel;
+    }
+
+    public Network getNetwork() {
+        return network;
+    }
+
+    public Contract getContract() {
+        return contract;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public int getPinned() {
+        return pinned.get();
+    }
+
+    public double getLatencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    void onAcquire() {
+        outstanding.incrementAndGet();
+    }
+
+    void onSuccess(long latencyNanos) {
+        outstanding.decrementAndGet();
+        double current = latencyEwmaNanos;
+        latencyEwmaNanos = current == 0 ? latencyNanos : current + LATENCY_ALPHA * (latencyNanos - current);
+    }
+
+    void onRelease() {
+        outstanding.decrementAndGet();
+    }
+
+    void pin() {
+        pinned.incrementAndGet();
+    }
+
+    void unpin() {
+        pinned.decrementAndGet();
+    }
+
+    public void close() throws InterruptedException {
+        gateway.close();
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.trustregistry.gateway;
+
+import io.grpc.ConnectivityState;
+import io.grpc.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Balances ledger calls across gateway connections to one or more peers.
+ * <p>
+ * Picks the connection with the fewest outstanding calls among endpoints whose circuit is closed, breaking ties by
+ * observed latency. An endpoint with repeated transport failures has its circuit opened for a while; afterwards
+ * one call at a time is routed to it as a probe until one succeeds.
+ */
+public class PeerConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerConnectionPool.class);
+
+    private static final long POLL_MILLIS = 20;
+
+    private final List<PeerConnection> connections;
+    private final List<CircuitBreaker> circuitBreakers;
+
+    public PeerConnectionPool(List<PeerConnection> connections) {
+        if (connections.isEmpty()) {
+            throw new IllegalArgumentException("At least one peer connection is required");
+        }
+        this.connections = List.copyOf(connections);
+        Set<CircuitBreaker> breakers = new LinkedHashSet<>();
+        for (PeerConnection connection : connections) {
+            breakers.add(connection.getCircuitBreaker());
+        }
+        this.circuitBreakers = List.copyOf(breakers);
+    }
+
+    public List<PeerConnection> getConnections() {
+        return connections;
+    }
+
+    /**
+     * One circuit breaker per peer endpoint, in connection order.
+     */
+    public List<CircuitBreaker> getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * The connection used for event subscriptions, which must stay on one peer to keep block ordering.
+     */
+    public PeerConnection primary() {
+        return connections.get(0);
+    }
+
+    public PeerConnection acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * Like {@link #acquire()}, but prefers any connection other than {@code avoid}, and a different endpoint
+     * when one is available; used to send a hedged read somewhere other than the slow original attempt.
+     */
+    public PeerConnection acquire(PeerConnection avoid) {
+        long now = System.currentTimeMillis();
+        PeerConnection best = null;
+        PeerConnection soonestReadmitted = null;
+        for (PeerConnection connection : connections) {
+            CircuitBreaker breaker = connection.getCircuitBreaker();
+            if (connection != avoid && breaker.tryAcquireProbe(now)) {
+                best = connection;
+                break;
+            }
+            if (!breaker.isClosed()) {
+                if (soonestReadmitted == null
+                        || breaker.getOpenUntilMillis() < soonestReadmitted.getCircuitBreaker().getOpenUntilMillis()) {
+                    soonestReadmitted = connection;
+                }
+                continue;
+            }
+            if (best == null || isPreferred(connection, best, avoid)) {
+                best = connection;
+            }
+        }
+        // With every circuit open, keep trying the endpoint closest to re-admission rather than failing outright.
+        PeerConnection chosen = best != null ? best : soonestReadmitted;
+        chosen.onAcquire();
+        return chosen;
+    }
+
+    public void release(PeerConnection connection, long latencyNanos) {
+        connection.onSuccess(latencyNanos);
+        if (connection.getCircuitBreaker().onSuccess()) {
+            logger.info("Closing circuit for peer {} after a successful probe", connection.getEndpoint());
+        }
+    }
+
+    /**
+     * Releases a connection whose call failed. Only transport-level failures count against the peer's health;
+     * chaincode errors are a property of the request, not the peer.
+     */
+    public void releaseFailed(PeerConnection connection, Status.Code code) {
+        connection.onRelease();
+        CircuitBreaker breaker = connection.getCircuitBreaker();
+        if (code == Status.Code.CANCELLED) {
+            breaker.onAbandoned();
+        } else if (!isTransportFailure(code)) {
+            breaker.onSuccess();
+        } else if (breaker.onFailure()) {
+            logger.warn("Opening circuit for peer {} after {} failure", connection.getEndpoint(), code);
+        }
+    }
+
+    private static boolean isPreferred(PeerConnection candidate, PeerConnection current, PeerConnection avoid) {
+        if (avoid != null) {
+            int byAvoidance = Integer.compare(avoidance(candidate, avoid), avoidance(current, avoid));
+            if (byAvoidance != 0) {
+                return byAvoidance < 0;
+            }
+        }
+        int byOutstanding = Integer.compare(candidate.getOutstanding(), current.getOutstanding());
+        if (byOutstanding != 0) {
+            return byOutstanding < 0;
+        }
+        return candidate.getLatencyEwmaNanos() < current.getLatencyEwmaNanos();
+    }
+
+    // 0 for another endpoint, 1 for another channel to the same endpoint, 2 for the connection itself.
+    private static int avoidance(PeerConnection connection, PeerConnection avoid) {
+        if (connection == avoid) {
+            return 2;
+        }
+        return connection.getEndpoint().equals(avoid.getEndpoint()) ? 1 : 0;
+    }
+
+    private static boolean isTransportFailure(Status.Code code) {
+        return code == Status.Code.UNAVAILABLE || code == Status.Code.DEADLINE_EXCEEDED || code == Status.Code.RESOURCE_EXHAUSTED;
+    }
+
+    /**
+     * Starts connecting every channel and waits up to {@code timeoutMillis} for all of them to become ready, so
+     * the first calls routed to a new pool do not pay for the TLS handshakes.
+     *
+     * @return the number of channels that are ready
+     */
+    public int connect(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            int ready = 0;
+            for (PeerConnection connection : connections) {
+                if (connection.getChannel().getState(true) == ConnectivityState.READY) {
+                    ready++;
+                }
+            }
+            if (ready == connections.size() || System.currentTimeMillis() >= deadline) {
+                return ready;
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for the calls already routed to this pool to finish, including commit status
+     * reads of transactions submitted through it, then closes it. Used on a pool that has been replaced, so no new
+     * calls arrive while it drains.
+     */
+    public void drainAndClose(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        // Sleep first: a caller may have read the old pool just before the swap and not yet acquired from it.
+        do {
+            Thread.sleep(POLL_MILLIS);
+        } while (outstanding() > 0 && System.currentTimeMillis() < deadline);
+        int abandoned = outstanding();
+        if (abandoned > 0) {
+            logger.warn("Closing replaced peer connections with {} call(s) or commit status read(s) still outstanding", abandoned);
+        }
+        close();
+    }
+
+    private int outstanding() {
+        int outstanding = 0;
+        for (PeerConnection connection : connections) {
+            outstanding += connection.getOutstanding() + connection.getPinned();
+        }
+        return outstanding;
+    }
+
+    public void close() {
+        for (PeerConnection connection : connections) {
+            try {
+                connection.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
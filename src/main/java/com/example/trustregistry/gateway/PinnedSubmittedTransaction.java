@@ -0,0 +1,65 @@
+package com.example.trustregistry.gateway;
+
+import io.grpc.CallOptions;
+import org.hyperledger.fabric.client.CommitStatusException;
+import org.hyperledger.fabric.client.Status;
+import org.hyperledger.fabric.client.SubmittedTransaction;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+/**
+ * A submitted transaction that keeps its {@link PeerConnection} pinned until the commit status has been read, since
+ * that read is another call on the same connection. A pool being drained after a credential reload waits for pinned
+ * connections as it does for outstanding calls.
+ */
+public class PinnedSubmittedTransaction implements SubmittedTransaction {
+
+    private final SubmittedTransaction delegate;
+    private final PeerConnection connection;
+    private final AtomicBoolean unpinned = new AtomicBoolean();
+
+    public PinnedSubmittedTransaction(SubmittedTransaction delegate, PeerConnection connection) {
+        this.delegate = delegate;
+        this.connection = connection;
+        connection.pin();
+    }
+
+    @Override
+    public byte[] getResult() {
+        return delegate.getResult();
+    }
+
+    @Override
+    public String getTransactionId() {
+        return delegate.getTransactionId();
+    }
+
+    @Override
+    public Status getStatus(UnaryOperator<CallOptions> options) throws CommitStatusException {
+        try {
+            return delegate.getStatus(options);
+        } finally {
+            unpin();
+        }
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return delegate.getBytes();
+    }
+
+    @Override
+    public byte[] getDigest() {
+        return delegate.getDigest();
+    }
+
+    /**
+     * Releases the pin without reading the status, for a caller that will never read it.
+     */
+    public void unpin() {
+        if (unpinned.compareAndSet(false, true)) {
+            connection.unpin();
+        }
+    }
+}
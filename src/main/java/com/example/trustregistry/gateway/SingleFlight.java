@@ -0,0 +1,60 @@
+package com.example.trustregistry.gateway;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Collapses concurrent identical calls: while a call for a key is in flight, later callers with the same key wait
+ * for its result or exception instead of starting their own. Nothing is kept once the call completes, but a joined
+ * call may have started before the caller arrived; callers that must not see a result from before some event, such
+ * as a write, put something into the key that changes with it.
+ */
+public class SingleFlight<V> {
+
+    private final ConcurrentMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code call}, or joins the call already in flight for {@code key}, in which case {@code onCollapsed}
+     * runs first.
+     */
+    public V execute(String key, Callable<V> call, Runnable onCollapsed) throws Exception {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            onCollapsed.run();
+            return await(existing);
+        }
+        try {
+            V result = call.call();
+            leader.complete(result);
+            return result;
+        } catch (Throwable t) {
+            leader.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
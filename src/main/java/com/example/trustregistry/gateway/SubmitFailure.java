@@ -0,0 +1,93 @@
+package com.example.trustregistry.gateway;
+
+import io.grpc.Status;
+import org.hyperledger.fabric.client.CommitStatusException;
+import org.hyperledger.fabric.client.EndorseException;
+import org.hyperledger.fabric.client.GatewayException;
+import org.hyperledger.fabric.client.SubmitException;
+import org.hyperledger.fabric.protos.gateway.ErrorDetail;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * What a failed submit says about the transaction. Only a chaincode rejection during endorsement is a definite
+ * answer about the request itself; the rest are about the path to the ledger, and after the transaction has been
+ * sent to the orderer whether it committed is unknown.
+ */
+public enum SubmitFailure {
+    /** The chaincode rejected the proposal during endorsement; nothing was sent to the orderer. */
+    REJECTED,
+    /** The transaction was committed but marked invalid, so it had no effect. */
+    INVALIDATED,
+    /** No peer could take the call or the limiter shed it; nothing was sent to the orderer. */
+    UNAVAILABLE,
+    /** The peer call ran out of time before the transaction was sent to the orderer. */
+    TIMED_OUT,
+    /** The transaction may have been sent to the orderer, and whether it committed is unknown. */
+    INDETERMINATE,
+    /** Any other failure before the transaction was sent. */
+    FAILED;
+
+    private static final String CHAINCODE_ERROR = "chaincode response ";
+
+    public static SubmitFailure of(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            if (e instanceof LedgerOverloadedException) {
+                return UNAVAILABLE;
+            }
+            if (e instanceof CommitFailedException) {
+                return INVALIDATED;
+            }
+            if (e instanceof SubmitException || e instanceof CommitStatusException || e instanceof TimeoutException
+                    || e instanceof InterruptedException) {
+                return INDETERMINATE;
+            }
+            if (e instanceof EndorseException) {
+                return ofEndorse((EndorseException) e);
+            }
+            if (e instanceof GatewayException) {
+                return ofStatus(((GatewayException) e).getStatus().getCode(), FAILED);
+            }
+        }
+        // FabricGatewayClient rethrows endorsement failures as the chaincode message with the cause attached, and
+        // test doubles throw that message alone.
+        String message = failure.getMessage();
+        return message != null && message.contains(CHAINCODE_ERROR) ? REJECTED : FAILED;
+    }
+
+    private static SubmitFailure ofEndorse(EndorseException e) {
+        SubmitFailure failure = ofStatus(e.getStatus().getCode(), null);
+        if (failure != null) {
+            return failure;
+        }
+        if (e.getMessage() != null && e.getMessage().contains(CHAINCODE_ERROR)) {
+            return REJECTED;
+        }
+        for (ErrorDetail detail : e.getDetails()) {
+            if (detail.getMessage().contains(CHAINCODE_ERROR)) {
+                return REJECTED;
+            }
+        }
+        return FAILED;
+    }
+
+    private static SubmitFailure ofStatus(Status.Code code, SubmitFailure otherwise) {
+        switch (code) {
+            case UNAVAILABLE:
+            case RESOURCE_EXHAUSTED:
+            case CANCELLED:
+                return UNAVAILABLE;
+            case DEADLINE_EXCEEDED:
+                return TIMED_OUT;
+            default:
+                return otherwise;
+        }
+    }
+
+    /**
+     * Returns true when the request itself was answered, so repeating it would get the same answer.
+     */
+    public boolean isDefinite() {
+        return this == REJECTED;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.trustregistry.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response to each submit sent with an {@code Idempotency-Key}, so a client retry gets the original
+ * outcome instead of a second endorse and commit. A retry while the first call is still running waits for it;
+ * a retry after it finished is answered from memory.
+ * <p>
+ * Only outcomes that a retry would reproduce are kept: successes (including the 202 of an async submit, which
+ * carries the transaction ID) and definite rejections, the 400 of invalid data and the 409 of a duplicate. Other
+ * errors, including the 502/503/504 of a submit that failed on the way to the ledger, are handed to the callers
+ * already waiting and then forgotten, so the next retry runs the submit again. Keys are bounded in number and
+ * expire after the configured TTL; a key whose submit is still running is never evicted, so a retry cannot slip
+ * past it into a second submit.
+ */
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Value("${trustregistry.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trustregistry.idempotency.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${trustregistry.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    private Cache<String, Entry> entries;
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                // Pending entries weigh nothing, so only completed ones count against the bound and can be evicted.
+                .maximumWeight(maxKeys)
+                .weigher((String key, Entry entry) -> entry.response.isDone() ? 1 : 0)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        logger.info("Idempotency store initialized (enabled: {}, maxKeys: {}, ttlSeconds: {})", enabled, maxKeys, ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns true for a key clients may send: 1 to 128 printable ASCII characters.
+     */
+    public static boolean isValidKey(String key) {
+        if (key == null || key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x21 || c > 0x7e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs {@code submit} once per key and operation, or returns the outcome of the call that already ran or is
+     * running under the same key.
+     *
+     * @param operation Scopes the key, so the same key sent to two endpoints does not collide.
+     * @param key The client's Idempotency-Key.
+     * @param payload The request body; a reused key with a different body is rejected.
+     * @param submit Performs the submit and builds its response; must not throw.
+     */
+    public Result execute(String operation, String key, String payload, Supplier<ResponseEntity<Object>> submit) {
+        if (!enabled) {
+            return new Result(submit.get(), false, false);
+        }
+        String storeKey = operation + '\u0000' + key;
+        String fingerprint = fingerprint(payload);
+        Entry entry = new Entry(fingerprint);
+        Entry existing = entries.asMap().putIfAbsent(storeKey, entry);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return new Result(null, false, true);
+            }
+            return new Result(await(existing.response), true, false);
+        }
+
+        ResponseEntity<Object> response;
+        try {
+            response = submit.get();
+        } catch (RuntimeException e) {
+            entries.asMap().remove(storeKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        if (isReplayable(response)) {
+            entry.response.complete(response);
+            // Putting the entry again re-weighs it now that it is done, making it count against the bound.
+            entries.asMap().replace(storeKey, entry, entry);
+        } else {
+            entries.asMap().remove(storeKey, entry);
+            entry.response.complete(response);
+        }
+        return new Result(response, false, false);
+    }
+
+    private static ResponseEntity<Object> await(CompletableFuture<ResponseEntity<Object>> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isReplayable(ResponseEntity<Object> response) {
+        HttpStatusCode status = response.getStatusCode();
+        return status.is2xxSuccessful() || status.isSameCodeAs(HttpStatus.BAD_REQUEST) || status.isSameCodeAs(HttpStatus.CONFLICT);
+    }
+
+    private static String fingerprint(String payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "idempotency");
+    }
+
+    /**
+     * The outcome of {@link #execute}: the response to send, whether it was replayed from an earlier call, and
+     * whether the key was rejected because it was already used with a different payload.
+     */
+    public static final class Result {
+        private final ResponseEntity<Object> response;
+        private final boolean replayed;
+        private final boolean mismatched;
+
+        private Result(ResponseEntity<Object> response, boolean replayed, boolean mismatched) {
+            this.response = response;
+            this.replayed = replayed;
+            this.mismatched = mismatched;
+        }
+
+        public ResponseEntity<Object> getResponse() {
+            return response;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+
+        public boolean isMismatched() {
+            return mismatched;
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
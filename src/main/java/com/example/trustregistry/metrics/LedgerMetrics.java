@@ -0,0 +1,233 @@
+package com.example.trustregistry.metrics;
+
+import com.example.trustregistry.gateway.AdaptiveConcurrencyLimiter;
+import com.example.trustregistry.gateway.CircuitBreaker;
+import com.example.trustregistry.gateway.PeerConnection;
+import com.example.trustregistry.gateway.PeerConnectionPool;
+import io.grpc.ConnectivityState;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hyperledger.fabric.client.EndorseException;
+import org.hyperledger.fabric.client.GatewayException;
+import org.hyperledger.fabric.protos.gateway.ErrorDetail;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for ledger calls: latency histograms per chaincode function, call type, phase and
+ * outcome, in-flight gauges, and the state of every gRPC channel in the peer connection pool.
+ */
+@Component
+public class LedgerMetrics {
+
+    public static final String EVALUATE = "evaluate";
+    public static final String SUBMIT = "submit";
+
+    public static final String PHASE_TOTAL = "total";
+    public static final String PHASE_ENDORSE = "endorse";
+    public static final String PHASE_SUBMIT = "submit";
+    public static final String PHASE_COMMIT = "commit";
+
+    public static final String SUCCESS = "success";
+    public static final String NOT_FOUND = "not_found";
+    public static final String TIMEOUT = "timeout";
+    public static final String ENDORSE_FAILURE = "endorse_failure";
+    public static final String COMMIT_FAILURE = "commit_failure";
+    public static final String CANCELLED = "cancelled";
+    public static final String ERROR = "error";
+
+    private static final String CALLS_METRIC = "fabric.ledger.calls";
+    private static final String COLLAPSED_METRIC = "fabric.ledger.evaluate.collapsed";
+    private static final String REJECTED_METRIC = "fabric.ledger.rejected";
+    private static final String HEDGED_METRIC = "fabric.ledger.evaluate.hedged";
+    private static final String RELOADS_METRIC = "fabric.credentials.reloads";
+
+    private final MeterRegistry registry;
+    private final AtomicInteger evaluateInFlight = new AtomicInteger();
+    private final AtomicInteger submitInFlight = new AtomicInteger();
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> collapsedCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> hedgedCounters = new ConcurrentHashMap<>();
+
+    public LedgerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("fabric.ledger.inflight", evaluateInFlight, AtomicInteger::get)
+                .description("Ledger calls currently waiting on a peer")
+                .tag("type", EVALUATE)
+                .register(registry);
+        Gauge.builder("fabric.ledger.inflight", submitInFlight, AtomicInteger::get)
+                .description("Ledger calls currently waiting on a peer")
+                .tag("type", SUBMIT)
+                .register(registry);
+    }
+
+    /**
+     * Marks the start of a ledger call; pair with {@link #stop}.
+     */
+    public long start(String type) {
+        inFlight(type).incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void stop(long startNanos, String type, String function, String outcome) {
+        inFlight(type).decrementAndGet();
+        timer(type, function, PHASE_TOTAL, outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records one completed phase of a submit (endorse, submit to orderer, commit wait).
+     */
+    public void recordPhase(String function, String phase, long nanos) {
+        timer(SUBMIT, function, phase, SUCCESS).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts an evaluate call that joined an identical call already in flight instead of reaching the peer.
+     */
+    public void recordCollapsed(String function) {
+        collapsedCounters.computeIfAbsent(function, f -> Counter.builder(COLLAPSED_METRIC)
+                .description("Evaluate calls answered by an identical call already in flight")
+                .tag("function", f)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Counts an evaluate call that was slow enough to send a hedged duplicate to another connection.
+     */
+    public void recordHedged(String function) {
+        hedgedCounters.computeIfAbsent(function, f -> Counter.builder(HEDGED_METRIC)
+                .description("Evaluate calls duplicated to another peer connection after exceeding the hedge delay")
+                .tag("function", f)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Counts a call shed by the concurrency limiter before it reached the peer.
+     */
+    public void recordRejected(String type, String function) {
+        rejectedCounters.computeIfAbsent(type + '|' + function, k -> Counter.builder(REJECTED_METRIC)
+                .description("Ledger calls rejected because the concurrency limit was reached")
+                .tag("type", type)
+                .tag("function", function)
+                .register(registry)).increment();
+    }
+
+    public void bindLimiter(String type, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("fabric.ledger.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on concurrent ledger calls")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    /**
+     * Binds the channel, circuit and outstanding-call gauges. They read through {@code pool} on every scrape, so
+     * they follow the pool in use after a credential reload swaps it; the circuit breakers carry over between pools.
+     */
+    public void bindConnectionPool(Supplier<PeerConnectionPool> pool) {
+        for (ConnectivityState state : ConnectivityState.values()) {
+            Gauge.builder("fabric.grpc.channels", pool, current -> countInState(current.get().getConnections(), state))
+                    .description("gRPC channels to peers by connectivity state")
+                    .tag("state", state.name())
+                    .register(registry);
+        }
+        for (CircuitBreaker breaker : pool.get().getCircuitBreakers()) {
+            Gauge.builder("fabric.peer.circuit.state", breaker, b -> b.getState().ordinal())
+                    .description("Circuit breaker state per peer endpoint (0 closed, 1 open, 2 half-open)")
+                    .tag("endpoint", breaker.getEndpoint())
+                    .register(registry);
+        }
+        List<PeerConnection> connections = pool.get().getConnections();
+        for (int i = 0; i < connections.size(); i++) {
+            int index = i;
+            Gauge.builder("fabric.peer.outstanding", pool, current -> current.get().getConnections().get(index).getOutstanding())
+                    .description("Ledger calls in flight on one peer connection")
+                    .tag("endpoint", connections.get(i).getEndpoint())
+                    .tag("connection", Integer.toString(i))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Counts a hot reload of the client identity and TLS material, by outcome (success or error).
+     */
+    public void recordCredentialReload(String outcome) {
+        Counter.builder(RELOADS_METRIC)
+                .description("Reloads of the client identity and TLS material after the files changed")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Classifies a failed ledger call for the outcome tag.
+     */
+    public static String outcomeOf(Exception e) {
+        Throwable cause = e.getCause() instanceof GatewayException ? e.getCause() : e;
+        if (cause instanceof TimeoutException) {
+            return TIMEOUT;
+        }
+        if (cause instanceof GatewayException) {
+            GatewayException gatewayException = (GatewayException) cause;
+            if (gatewayException.getStatus().getCode() == Status.Code.DEADLINE_EXCEEDED) {
+                return TIMEOUT;
+            }
+            if (gatewayException.getStatus().getCode() == Status.Code.CANCELLED) {
+                return CANCELLED;
+            }
+            if (mentionsMissingRecord(gatewayException)) {
+                return NOT_FOUND;
+            }
+            return cause instanceof EndorseException ? ENDORSE_FAILURE : ERROR;
+        }
+        return e.getMessage() != null && e.getMessage().contains("does not exist") ? NOT_FOUND : ERROR;
+    }
+
+    private static boolean mentionsMissingRecord(GatewayException e) {
+        if (e.getMessage() != null && e.getMessage().contains("does not exist")) {
+            return true;
+        }
+        for (ErrorDetail detail : e.getDetails()) {
+            if (detail.getMessage().contains("does not exist")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double countInState(List<PeerConnection> connections, ConnectivityState state) {
+        int count = 0;
+        for (PeerConnection connection : connections) {
+            if (connection.getChannel().getState(false) == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private AtomicInteger inFlight(String type) {
+        return SUBMIT.equals(type) ? submitInFlight : evaluateInFlight;
+    }
+
+    private Timer timer(String type, String function, String phase, String outcome) {
+        String key = type + '|' + function + '|' + phase + '|' + outcome;
+        return timers.computeIfAbsent(key, k -> Timer.builder(CALLS_METRIC)
+                .description("Latency of chaincode calls through the Fabric Gateway")
+                .tag("type", type)
+                .tag("function", function)
+                .tag("phase", phase)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.trustregistry.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupItemResult {
+    private String id;
+    private int status;
+    private String result;
+    private Object record;
+    private String message;
+}
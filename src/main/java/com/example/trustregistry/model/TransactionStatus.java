@@ -0,0 +1,20 @@
+package com.example.trustregistry.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStatus {
+    @JsonProperty("transaction_id")
+    private String transactionId;
+    private String function;
+    // PENDING, VALID, UNKNOWN or the Fabric validation code of an invalid transaction
+    private String status;
+    @JsonProperty("block_number")
+    private Long blockNumber;
+    private String message;
+}
@@ -0,0 +1,140 @@
+package com.example.trustregistry.tx;
+
+import com.example.trustregistry.gateway.LedgerOverloadedException;
+import com.example.trustregistry.model.TransactionStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hyperledger.fabric.client.Status;
+import org.hyperledger.fabric.client.SubmittedTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Waits for the commit status of asynchronously submitted transactions off the request thread and keeps
+ * the outcome for a while so clients can poll it by transaction ID.
+ * <p>
+ * Each wait blocks a status thread for the whole commit latency, so at most {@code max-pending} transactions may
+ * be awaiting their status at once. A submit has to {@link #reserve} a place before it is sent; past the limit it
+ * is refused as overloaded rather than queued behind statuses that would resolve long after the commit.
+ */
+@Component
+public class CommitStatusTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommitStatusTracker.class);
+
+    public static final String PENDING = "PENDING";
+    public static final String VALID = "VALID";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    @Value("${trustregistry.tx.max-tracked:100000}")
+    private long maxTracked;
+
+    @Value("${trustregistry.tx.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${trustregistry.tx.status-threads:32}")
+    private int statusThreads;
+
+    @Value("${trustregistry.tx.max-pending:1000}")
+    private int maxPending;
+
+    @Value("${fabric.limiter.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private Cache<String, TransactionStatus> statuses;
+    private ExecutorService executor;
+    private Semaphore pending;
+
+    @PostConstruct
+    public void init() {
+        statuses = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(statusThreads, runnable -> {
+            Thread thread = new Thread(runnable, "commit-status-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pending = new Semaphore(maxPending);
+    }
+
+    /**
+     * Reserves a place for one more transaction to track, to be taken by {@link #track} or given back with
+     * {@link #release} if the submit fails.
+     */
+    public void reserve(String functionName) throws LedgerOverloadedException {
+        if (!pending.tryAcquire()) {
+            throw new LedgerOverloadedException("pending commit status", functionName, maxPending, retryAfterSeconds);
+        }
+    }
+
+    public void release() {
+        pending.release();
+    }
+
+    /**
+     * Starts tracking the transaction in the place taken by {@link #reserve}; {@code onCommitted} runs once it
+     * commits as VALID.
+     */
+    public TransactionStatus track(String functionName, SubmittedTransaction transaction, Runnable onCommitted) {
+        String transactionId = transaction.getTransactionId();
+        TransactionStatus status = new TransactionStatus(transactionId, functionName, PENDING, null, null);
+        statuses.put(transactionId, status);
+        try {
+            executor.execute(() -> {
+                try {
+                    awaitCommit(functionName, transaction, onCommitted);
+                } finally {
+                    pending.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.release();
+            statuses.put(transactionId, new TransactionStatus(transactionId, functionName, UNKNOWN, null,
+                    "Commit status is no longer tracked: the service is shutting down"));
+            throw e;
+        }
+        return status;
+    }
+
+    public TransactionStatus getStatus(String transactionId) {
+        return statuses.getIfPresent(transactionId);
+    }
+
+    private void awaitCommit(String functionName, SubmittedTransaction transaction, Runnable onCommitted) {
+        String transactionId = transaction.getTransactionId();
+        try {
+            Status status = transaction.getStatus();
+            if (status.isSuccessful()) {
+                statuses.put(transactionId, new TransactionStatus(transactionId, functionName, VALID, status.getBlockNumber(), null));
+                onCommitted.run();
+            } else {
+                String code = status.getCode().name();
+                statuses.put(transactionId, new TransactionStatus(transactionId, functionName, code, status.getBlockNumber(),
+                        String.format("Transaction %s failed to commit with status code %s", transactionId, code)));
+            }
+            logger.info("Transaction {} committed with status {} in block {}", transactionId, status.getCode(), status.getBlockNumber());
+        } catch (Exception e) {
+            logger.error("Unable to obtain commit status for transaction {}: {}", transactionId, e.getMessage());
+            statuses.put(transactionId, new TransactionStatus(transactionId, functionName, UNKNOWN, null, e.getMessage()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.trustregistry.validation;
+
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Checks record payloads before any ledger call, so writes the chaincode would reject (or that would bloat the
+ * world state) fail fast with a 400 instead of using peer endorsement capacity.
+ * <p>
+ * Each method returns every violation found, in field order; an empty list means the record is valid. A null
+ * record and keys that collide with literal read routes are rejected even when validation is disabled.
+ */
+@Component
+public class RecordValidator {
+
+    private static final String NULL_RECORD = "record must not be null";
+
+    // Literal GET routes next to /trust/{id} and /governance/{identifier}; a record keyed by one of these could be
+    // written but never read back by key.
+    private static final Set<String> RESERVED_TRUST_IDS = Set.of("search", "page", "stream", "valid");
+    private static final Set<String> RESERVED_GOVERNANCE_IDENTIFIERS = Set.of("page", "stream");
+
+    @Value("${trustregistry.validation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trustregistry.validation.trust-statuses:Active,Inactive,Revoked,Suspended}")
+    private String[] trustStatusValues;
+
+    @Value("${trustregistry.validation.governance-statuses:Active,Inactive}")
+    private String[] governanceStatusValues;
+
+    @Value("${trustregistry.validation.max-field-length:1024}")
+    private int maxFieldLength;
+
+    @Value("${trustregistry.validation.max-did-document-length:65536}")
+    private int maxDidDocumentLength;
+
+    private final JsonFactory jsonFactory;
+
+    private Set<String> trustStatuses;
+    private Set<String> governanceStatuses;
+
+    public RecordValidator(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @PostConstruct
+    public void init() {
+        // Case-insensitive: existing clients send both "Active" and "active".
+        trustStatuses = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        trustStatuses.addAll(Arrays.asList(trustStatusValues));
+        governanceStatuses = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        governanceStatuses.addAll(Arrays.asList(governanceStatusValues));
+    }
+
+    public List<String> validate(TrustRecord record) {
+        List<String> violations = new ArrayList<>();
+        if (record == null) {
+            violations.add(NULL_RECORD);
+            return violations;
+        }
+        reserved(violations, "id", record.getId(), RESERVED_TRUST_IDS);
+        if (!enabled) {
+            return violations;
+        }
+        required(violations, "id", record.getId());
+        required(violations, "identifier", record.getIdentifier());
+        required(violations, "status", record.getStatus());
+        maxLength(violations, "entity_type", record.getEntityType());
+        maxLength(violations, "credential_type", record.getCredentialType());
+        maxLength(violations, "created_at", record.getCreatedAt());
+        maxLength(violations, "updated_at", record.getUpdatedAt());
+        maxLength(violations, "deleted_at", record.getDeletedAt());
+        maxLength(violations, "governance_framework_uri", record.getGovernanceFrameworkURI());
+        maxLength(violations, "status_detail", record.getStatusDetail());
+        oneOf(violations, "status", record.getStatus(), trustStatuses);
+        didDocument(violations, record.getDidDocument());
+
+        OffsetDateTime validFrom = dateTime(violations, "valid_from_dt", record.getValidFromDt());
+        OffsetDateTime validUntil = dateTime(violations, "valid_until_dt", record.getValidUntilDt());
+        if (validFrom != null && validUntil != null && validUntil.isBefore(validFrom)) {
+            violations.add("valid_until_dt must not be before valid_from_dt");
+        }
+        return violations;
+    }
+
+    public List<String> validate(GovernanceRecord record) {
+        List<String> violations = new ArrayList<>();
+        if (record == null) {
+            violations.add(NULL_RECORD);
+            return violations;
+        }
+        reserved(violations, "identifier", record.getIdentifier(), RESERVED_GOVERNANCE_IDENTIFIERS);
+        if (!enabled) {
+            return violations;
+        }
+        required(violations, "id", record.getId());
+        required(violations, "identifier", record.getIdentifier());
+        required(violations, "status", record.getStatus());
+        maxLength(violations, "name", record.getName());
+        maxLength(violations, "created_at", record.getCreatedAt());
+        maxLength(violations, "updated_at", record.getUpdatedAt());
+        maxLength(violations, "deleted_at", record.getDeletedAt());
+        oneOf(violations, "status", record.getStatus(), governanceStatuses);
+        return violations;
+    }
+
+    private static void reserved(List<String> violations, String field, String value, Set<String> reserved) {
+        if (value != null && reserved.contains(value)) {
+            violations.add(String.format("%s must not be one of the reserved names %s", field, String.join(", ", new TreeSet<>(reserved))));
+        }
+    }
+
+    private void required(List<String> violations, String field, String value) {
+        if (value == null || value.isBlank()) {
+            violations.add(field + " is required");
+        } else {
+            maxLength(violations, field, value);
+        }
+    }
+
+    private void maxLength(List<String> violations, String field, String value) {
+        if (value != null && value.length() > maxFieldLength) {
+            violations.add(String.format("%s must be at most %d characters", field, maxFieldLength));
+        }
+    }
+
+    private static void oneOf(List<String> violations, String field, String value, Set<String> allowed) {
+        if (value != null && !value.isBlank() && !allowed.contains(value)) {
+            violations.add(String.format("%s must be one of %s", field, String.join(", ", allowed)));
+        }
+    }
+
+    private static OffsetDateTime dateTime(List<String> violations, String field, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            violations.add(field + " must be an ISO-8601 date-time with offset, e.g. 2025-01-01T00:00:00Z");
+            return null;
+        }
+    }
+
+    /**
+     * A DID document must be one well-formed JSON object. The parser only skips over the content, so this costs
+     * a tokenizer pass but builds no tree.
+     */
+    private void didDocument(List<String> violations, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (value.length() > maxDidDocumentLength) {
+            violations.add(String.format("did_document must be at most %d characters", maxDidDocumentLength));
+            return;
+        }
+        try (JsonParser parser = jsonFactory.createParser(value)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                violations.add("did_document must be a JSON object");
+                return;
+            }
+            parser.skipChildren();
+            if (parser.nextToken() != null) {
+                violations.add("did_document has content after the JSON object");
+            }
+        } catch (JsonProcessingException e) {
+            violations.add("did_document is not well-formed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            violations.add("did_document is not well-formed JSON");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.TrustRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The form trust records take inside the {@link LedgerView}. Repeating fields are codes into a shared
+ * {@link StringDictionary} (free-text status_detail is kept as a plain string, so it never fills the dictionary),
+ * timestamps are epoch milliseconds, and large DID documents are kept deflated; a
+ * {@link TrustRecord} is only materialized when a record is read out. Encoding is lossless: a timestamp that would
+ * not format back to the same string is kept as written.
+ */
+final class CompactTrustRecord {
+
+    // Preset deflate dictionary of DID document vocabulary. Most documents are too small for deflate to find
+    // much repetition within one; this lets even the first occurrence of these strings become a back-reference.
+    // Changing it makes existing deflated bytes unreadable, which is fine only because they never leave the process.
+    private static final byte[] DID_DICTIONARY = String.join("",
+            "\"serviceEndpoint\":\"https://", "\"service\":[{\"id\":\"did:", "\"type\":\"LinkedDomains\"",
+            "\"keyAgreement\":[", "\"capabilityInvocation\":[", "\"capabilityDelegation\":[",
+            "\"type\":\"JsonWebKey2020\"", "\"publicKeyJwk\":{\"kty\":\"OKP\",\"crv\":\"Ed25519\",\"x\":\"",
+            "\"kty\":\"EC\",\"crv\":\"P-256\",\"x\":\"", "\",\"y\":\"",
+            "\"type\":\"X25519KeyAgreementKey2020\"", "\"type\":\"Ed25519VerificationKey2018\"",
+            "\"publicKeyBase58\":\"", "\"type\":\"Ed25519VerificationKey2020\"", "\"publicKeyMultibase\":\"z6Mk",
+            "\"controller\":\"did:web:", "\"controller\":\"did:key:", "\"assertionMethod\":[\"did:",
+            "\"authentication\":[\"did:", "\"verificationMethod\":[{\"id\":\"did:",
+            "https://w3id.org/security/suites/jws-2020/v1", "https://w3id.org/security/suites/ed25519-2020/v1",
+            "{\"@context\":[\"https://www.w3.org/ns/did/v1\",\"", "\"id\":\"did:").getBytes(StandardCharsets.UTF_8);
+
+    private static final int TIMESTAMP_NULL = 0;
+    private static final int TIMESTAMP_ISO_INSTANT = 1;
+    private static final int TIMESTAMP_MILLIS = 2;
+    private static final int TIMESTAMP_VERBATIM = 3;
+    private static final int TIMESTAMP_FORMAT_BITS = 2;
+    // The fixed-millisecond form JavaScript's toISOString() writes, which Instant.toString() shortens.
+    private static final DateTimeFormatter MILLIS_FORMAT =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    // Reused: setting up zlib state dominated coding a small document. The pools are bounded so idle native zlib
+    // memory stays small however many threads pass through; an instance that does not fit back is ended at once.
+    private static final int CODEC_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(CODEC_POOL_SIZE);
+    private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(CODEC_POOL_SIZE);
+
+    private static final int IDENTIFIER = 0;
+    private static final int ENTITY_TYPE = 1;
+    private static final int CREDENTIAL_TYPE = 2;
+    private static final int GOVERNANCE_FRAMEWORK_URI = 3;
+    private static final int STATUS = 4;
+    private static final int ENCODED_COUNT = 5;
+
+    private static final int CREATED_AT = 0;
+    private static final int UPDATED_AT = 1;
+    private static final int DELETED_AT = 2;
+    private static final int VALID_FROM = 3;
+    private static final int VALID_UNTIL = 4;
+    private static final int TIMESTAMP_COUNT = 5;
+
+    private final String id;
+    private final int identifier;
+    private final int entityType;
+    private final int credentialType;
+    private final int governanceFrameworkUri;
+    private final int status;
+    private final String statusDetail;
+    // Values the dictionary had no room for, by index; null when every value was encoded.
+    private final String[] unencodedValues;
+    private final long createdAt;
+    private final long updatedAt;
+    private final long deletedAt;
+    private final long validFrom;
+    private final long validUntil;
+    // TIMESTAMP_FORMAT_BITS per timestamp, in the order of the indexes above.
+    private final short timestampFormats;
+    // Timestamps kept as written, by index; null when every timestamp could be encoded.
+    private final String[] verbatimTimestamps;
+    private final byte[] didDocument;
+    // Length of the inflated DID document, or -1 when it is stored as plain UTF-8.
+    private final int inflatedLength;
+
+    private CompactTrustRecord(TrustRecord record, StringDictionary dictionary, int deflateMinBytes) {
+        id = record.getId();
+        String[] values = new String[ENCODED_COUNT];
+        values[IDENTIFIER] = record.getIdentifier();
+        values[ENTITY_TYPE] = record.getEntityType();
+        values[CREDENTIAL_TYPE] = record.getCredentialType();
+        values[GOVERNANCE_FRAMEWORK_URI] = record.getGovernanceFrameworkURI();
+        values[STATUS] = record.getStatus();
+        int[] codes = new int[ENCODED_COUNT];
+        String[] unencoded = null;
+        for (int i = 0; i < ENCODED_COUNT; i++) {
+            codes[i] = dictionary.encode(values[i]);
+            if (codes[i] == StringDictionary.NOT_ENCODED) {
+                if (unencoded == null) {
+                    unencoded = new String[ENCODED_COUNT];
+                }
+                unencoded[i] = values[i];
+            }
+        }
+        identifier = codes[IDENTIFIER];
+        entityType = codes[ENTITY_TYPE];
+        credentialType = codes[CREDENTIAL_TYPE];
+        governanceFrameworkUri = codes[GOVERNANCE_FRAMEWORK_URI];
+        status = codes[STATUS];
+        statusDetail = record.getStatusDetail();
+        unencodedValues = unencoded;
+
+        String[] timestamps = new String[TIMESTAMP_COUNT];
+        timestamps[CREATED_AT] = record.getCreatedAt();
+        timestamps[UPDATED_AT] = record.getUpdatedAt();
+        timestamps[DELETED_AT] = record.getDeletedAt();
+        timestamps[VALID_FROM] = record.getValidFromDt();
+        timestamps[VALID_UNTIL] = record.getValidUntilDt();
+        long[] epochs = new long[TIMESTAMP_COUNT];
+        int formats = 0;
+        String[] verbatim = null;
+        for (int i = 0; i < TIMESTAMP_COUNT; i++) {
+            int format = TIMESTAMP_NULL;
+            if (timestamps[i] != null) {
+                epochs[i] = parseEpochMillis(timestamps[i]);
+                format = formatOf(timestamps[i], epochs[i]);
+                if (format == TIMESTAMP_VERBATIM) {
+                    if (verbatim == null) {
+                        verbatim = new String[TIMESTAMP_COUNT];
+                    }
+                    verbatim[i] = timestamps[i];
+                }
+            }
+            formats |= format << (i * TIMESTAMP_FORMAT_BITS);
+        }
+        createdAt = epochs[CREATED_AT];
+        updatedAt = epochs[UPDATED_AT];
+        deletedAt = epochs[DELETED_AT];
+        validFrom = epochs[VALID_FROM];
+        validUntil = epochs[VALID_UNTIL];
+        timestampFormats = (short) formats;
+        verbatimTimestamps = verbatim;
+
+        if (record.getDidDocument() == null) {
+            didDocument = null;
+            inflatedLength = -1;
+        } else {
+            byte[] utf8 = record.getDidDocument().getBytes(StandardCharsets.UTF_8);
+            byte[] deflated = utf8.length >= deflateMinBytes ? deflate(utf8) : null;
+            if (deflated != null && deflated.length < utf8.length) {
+                didDocument = deflated;
+                inflatedLength = utf8.length;
+            } else {
+                didDocument = utf8;
+                inflatedLength = -1;
+            }
+        }
+    }
+
+    /**
+     * Encodes a record, deflating its DID document if it is at least {@code deflateMinBytes} of UTF-8 and that
+     * makes it smaller.
+     */
+    static CompactTrustRecord of(TrustRecord record, StringDictionary dictionary, int deflateMinBytes) {
+        return new CompactTrustRecord(record, dictionary, deflateMinBytes);
+    }
+
+    TrustRecord toTrustRecord(StringDictionary dictionary) {
+        TrustRecord record = new TrustRecord();
+        record.setId(id);
+        record.setIdentifier(value(dictionary, IDENTIFIER, identifier));
+        record.setEntityType(value(dictionary, ENTITY_TYPE, entityType));
+        record.setCredentialType(value(dictionary, CREDENTIAL_TYPE, credentialType));
+        record.setGovernanceFrameworkURI(value(dictionary, GOVERNANCE_FRAMEWORK_URI, governanceFrameworkUri));
+        record.setStatus(value(dictionary, STATUS, status));
+        record.setStatusDetail(statusDetail);
+        record.setCreatedAt(timestamp(CREATED_AT, createdAt));
+        record.setUpdatedAt(timestamp(UPDATED_AT, updatedAt));
+        record.setDeletedAt(timestamp(DELETED_AT, deletedAt));
+        record.setValidFromDt(timestamp(VALID_FROM, validFrom));
+        record.setValidUntilDt(timestamp(VALID_UNTIL, validUntil));
+        record.setDidDocument(didDocument());
+        return record;
+    }
+
+    private String value(StringDictionary dictionary, int index, int code) {
+        return code == StringDictionary.NOT_ENCODED ? unencodedValues[index] : dictionary.decode(code);
+    }
+
+    private String timestamp(int index, long epochMillis) {
+        switch ((timestampFormats >>> (index * TIMESTAMP_FORMAT_BITS)) & ((1 << TIMESTAMP_FORMAT_BITS) - 1)) {
+            case TIMESTAMP_ISO_INSTANT:
+                return Instant.ofEpochMilli(epochMillis).toString();
+            case TIMESTAMP_MILLIS:
+                return MILLIS_FORMAT.format(Instant.ofEpochMilli(epochMillis));
+            case TIMESTAMP_VERBATIM:
+                return verbatimTimestamps[index];
+            default:
+                return null;
+        }
+    }
+
+    private String didDocument() {
+        if (didDocument == null) {
+            return null;
+        }
+        if (inflatedLength < 0) {
+            return new String(didDocument, StandardCharsets.UTF_8);
+        }
+        Inflater inflater = INFLATERS.poll();
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        try {
+            inflater.setInput(didDocument);
+            byte[] utf8 = new byte[inflatedLength];
+            int length = 0;
+            while (length < utf8.length && !inflater.finished()) {
+                length += inflater.inflate(utf8, length, utf8.length - length);
+                if (inflater.needsDictionary()) {
+                    inflater.setDictionary(DID_DICTIONARY);
+                }
+            }
+            return new String(utf8, 0, length, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            // Only ever inflating what deflate() produced.
+            throw new IllegalStateException("Corrupt DID document for trust record " + id, e);
+        } finally {
+            inflater.reset();
+            if (!INFLATERS.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static long parseEpochMillis(String timestamp) {
+        try {
+            return Instant.parse(timestamp).toEpochMilli();
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the format that reproduces {@code timestamp} exactly from {@code epochMillis}, or verbatim if none does.
+     */
+    private static int formatOf(String timestamp, long epochMillis) {
+        Instant instant = Instant.ofEpochMilli(epochMillis);
+        if (instant.toString().equals(timestamp)) {
+            return TIMESTAMP_ISO_INSTANT;
+        }
+        if (MILLIS_FORMAT.format(instant).equals(timestamp)) {
+            return TIMESTAMP_MILLIS;
+        }
+        return TIMESTAMP_VERBATIM;
+    }
+
+    private static byte[] deflate(byte[] utf8) {
+        // Default level: the preset dictionary does most of the work on documents this small, so a higher level
+        // would mostly add CPU to every upsert.
+        Deflater deflater = DEFLATERS.poll();
+        if (deflater == null) {
+            deflater = new Deflater();
+        }
+        try {
+            deflater.setDictionary(DID_DICTIONARY);
+            deflater.setInput(utf8);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 2);
+            byte[] buffer = new byte[Math.min(utf8.length, 8192)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.reset();
+            if (!DEFLATERS.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.FabricGatewayClient;
+import com.example.trustregistry.feed.ChangeFeed;
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.hyperledger.fabric.client.ChaincodeEvent;
+import org.hyperledger.fabric.client.ChaincodeEventsRequest;
+import org.hyperledger.fabric.client.CloseableIterator;
+import org.hyperledger.fabric.client.FileCheckpointer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscribes to the trust registry chaincode events and applies every committed
+ * CreateTrustRecord/CreateGovernanceRecord write to the {@link LedgerView}, then publishes it to the {@link ChangeFeed}.
+ * <p>
+ * The chaincode is expected to emit an event named after the transaction with the stored record JSON as payload.
+ * Progress is checkpointed to a file so a restarted service resumes from the last processed block; when the view
+ * was restored by {@link LedgerSnapshotter}, it resumes from the snapshot's block height instead.
+ * <p>
+ * While the backlog since that point is replayed the view is behind the ledger, so it is only marked servable once
+ * an event from the last block committed at subscribe time arrives. The tail of the chain may hold no events for
+ * this chaincode, so a stream that goes quiet for {@code catch-up-idle-ms} also counts as caught up: the peer
+ * sends the backlog back to back.
+ */
+@Component
+public class LedgerEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEventListener.class);
+
+    private static final TypeReference<List<TrustRecord>> TRUST_RECORD_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<GovernanceRecord>> GOVERNANCE_RECORD_LIST = new TypeReference<>() {};
+
+    @Value("${trustregistry.view.enabled:false}")
+    private boolean enabled;
+
+    @Value("${trustregistry.view.checkpoint-file:./data/ledger-view.checkpoint}")
+    private String checkpointFile;
+
+    @Value("${trustregistry.view.retry-backoff-ms:2000}")
+    private long retryBackoffMs;
+
+    @Value("${trustregistry.view.catch-up-idle-ms:3000}")
+    private long catchUpIdleMs;
+
+    private final FabricGatewayClient fabricGatewayClient;
+    private final LedgerView ledgerView;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeed changeFeed;
+
+    private volatile boolean running;
+    private volatile CloseableIterator<ChaincodeEvent> events;
+    private Thread listenerThread;
+    private ScheduledExecutorService catchUpWatchdog;
+    // Set while replaying the backlog; lastEventNanos is when the stream last delivered an event (or opened).
+    private volatile boolean catchingUp;
+    private volatile long lastEventNanos;
+
+    public LedgerEventListener(FabricGatewayClient fabricGatewayClient, LedgerView ledgerView, ObjectMapper objectMapper,
+                               ChangeFeed changeFeed) {
+        this.fabricGatewayClient = fabricGatewayClient;
+        this.ledgerView = ledgerView;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Ledger view disabled; reads go to the peer.");
+            return;
+        }
+        running = true;
+        catchUpWatchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-view-catch-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkEveryMs = Math.max(1, catchUpIdleMs / 4);
+        catchUpWatchdog.scheduleWithFixedDelay(this::checkCatchUpIdle, checkEveryMs, checkEveryMs, TimeUnit.MILLISECONDS);
+        listenerThread = new Thread(this::run, "ledger-event-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    private void run() {
+        Path checkpointPath = Paths.get(checkpointFile);
+        while (running) {
+            try {
+                Files.createDirectories(checkpointPath.toAbsolutePath().getParent());
+                try (FileCheckpointer checkpointer = new FileCheckpointer(checkpointPath)) {
+                    listen(checkpointer);
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Ledger event stream failed, reconnecting in {} ms: {}", retryBackoffMs, e.getMessage());
+            } finally {
+                disconnected();
+            }
+            sleepBeforeRetry();
+        }
+        logger.info("Ledger event listener stopped.");
+    }
+
+    private void listen(FileCheckpointer checkpointer) throws Exception {
+        ChaincodeEventsRequest.Builder request = fabricGatewayClient.getNetwork()
+                .newChaincodeEventsRequest(fabricGatewayClient.getChaincodeName());
+        long viewBlockNumber = ledgerView.getLastBlockNumber();
+        boolean resuming = true;
+        if (ledgerView.isSeeded() && viewBlockNumber >= 0) {
+            // Resume from the view's own height, which lags the checkpoint file after a restore from an older
+            // snapshot. That block is replayed in full; upserts make re-applying its events harmless.
+            logger.info("Subscribing to chaincode events for '{}' from view block {}",
+                    fabricGatewayClient.getChaincodeName(), viewBlockNumber);
+            request.startBlock(viewBlockNumber);
+            changeFeed.streamStarted(viewBlockNumber);
+        } else {
+            logger.info("Subscribing to chaincode events for '{}' from checkpoint block {}",
+                    fabricGatewayClient.getChaincodeName(), checkpointer.getBlockNumber());
+            request.checkpoint(checkpointer);
+            // A checkpoint inside a block skips that block's transactions already processed. Without one, the
+            // stream starts at the next block to commit, and the feed takes the first event's block instead.
+            checkpointer.getBlockNumber().ifPresent(block ->
+                    changeFeed.streamStarted(checkpointer.getTransactionId().isPresent() ? block + 1 : block));
+            resuming = checkpointer.getBlockNumber().isPresent();
+        }
+        try (CloseableIterator<ChaincodeEvent> iterator = request.build().getEvents()) {
+            events = iterator;
+            // The stream is already open, so anything committed while seeding is replayed below. A view seeded
+            // earlier that has no block of its own and no checkpoint has nowhere to resume from, so it reads the
+            // ledger again rather than skip what was committed while the stream was down.
+            if (!ledgerView.isSeeded() || !resuming) {
+                seed();
+            }
+            // Read after subscribing, so every block below the height is part of the replayed backlog. Without a
+            // start point the stream begins at the next block and there is no backlog.
+            long catchUpBlock = resuming ? lastCommittedBlock() : -1;
+            if (catchUpBlock <= ledgerView.getLastBlockNumber()) {
+                ledgerView.markConnected();
+            } else {
+                logger.info("Replaying chaincode events from block {} before serving reads from the view",
+                        ledgerView.getLastBlockNumber());
+                lastEventNanos = System.nanoTime();
+                catchingUp = true;
+            }
+            while (running && iterator.hasNext()) {
+                ChaincodeEvent event = iterator.next();
+                lastEventNanos = System.nanoTime();
+                apply(event);
+                checkpointer.checkpointChaincodeEvent(event);
+                ledgerView.markBlockProcessed(event.getBlockNumber());
+                if (catchingUp && event.getBlockNumber() >= catchUpBlock) {
+                    caughtUp("reached block " + event.getBlockNumber());
+                }
+            }
+        } finally {
+            events = null;
+        }
+    }
+
+    /**
+     * Returns the number of the last committed block, or Long.MAX_VALUE when it cannot be read, in which case
+     * only a quiet stream ends the catch-up.
+     */
+    private long lastCommittedBlock() {
+        try {
+            return fabricGatewayClient.getChainHeight() - 1;
+        } catch (Exception e) {
+            logger.warn("Could not read the chain height, waiting for the event stream to go quiet: {}", e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private void checkCatchUpIdle() {
+        if (catchingUp && System.nanoTime() - lastEventNanos >= TimeUnit.MILLISECONDS.toNanos(catchUpIdleMs)) {
+            caughtUp("no events for " + catchUpIdleMs + " ms");
+        }
+    }
+
+    // Synchronized with disconnected(), so a watchdog that decided to connect cannot do so after the stream broke.
+    private synchronized void caughtUp(String reason) {
+        if (!catchingUp) {
+            return;
+        }
+        catchingUp = false;
+        ledgerView.markConnected();
+        logger.info("Ledger view caught up at block {} ({}); serving reads from the view",
+                ledgerView.getLastBlockNumber(), reason);
+    }
+
+    /**
+     * Loads every record from the peer and records the chain height read beforehand as the view's block, so a
+     * reconnect resumes from there. When the height cannot be read the view keeps no block and is seeded again
+     * on the next connect.
+     */
+    private void seed() throws Exception {
+        long height = -1;
+        try {
+            height = fabricGatewayClient.getChainHeight();
+        } catch (Exception e) {
+            logger.warn("Could not read the chain height before seeding the ledger view: {}", e.getMessage());
+        }
+        String trustRecords = fabricGatewayClient.evaluateTransaction("GetAllTrustRecords");
+        for (TrustRecord record : readList(trustRecords, TRUST_RECORD_LIST)) {
+            ledgerView.upsertTrustRecord(record);
+        }
+        String governanceRecords = fabricGatewayClient.evaluateTransaction("GetAllGovernanceRecords");
+        for (GovernanceRecord record : readList(governanceRecords, GOVERNANCE_RECORD_LIST)) {
+            ledgerView.upsertGovernanceRecord(record);
+        }
+        if (height > 0) {
+            ledgerView.markBlockProcessed(height - 1);
+        }
+        ledgerView.markSeeded();
+        logger.info("Ledger view seeded with {} trust records and {} governance records at block {}",
+                ledgerView.trustRecordCount(), ledgerView.governanceRecordCount(), ledgerView.getLastBlockNumber());
+    }
+
+    private synchronized void disconnected() {
+        catchingUp = false;
+        ledgerView.markDisconnected();
+    }
+
+    private <T> List<T> readList(String json, TypeReference<List<T>> type) throws IOException {
+        if (json == null || json.isBlank() || "null".equals(json.trim())) {
+            return List.of();
+        }
+        return objectMapper.readValue(json, type);
+    }
+
+    private void apply(ChaincodeEvent event) throws IOException {
+        switch (event.getEventName()) {
+            case "CreateTrustRecord": {
+                TrustRecord record = objectMapper.readValue(event.getPayload(), TrustRecord.class);
+                ledgerView.upsertTrustRecord(record);
+                changeFeed.publishTrustRecord(event.getBlockNumber(), event.getTransactionId(), event.getEventName(), record);
+                break;
+            }
+            case "CreateGovernanceRecord": {
+                GovernanceRecord record = objectMapper.readValue(event.getPayload(), GovernanceRecord.class);
+                ledgerView.upsertGovernanceRecord(record);
+                changeFeed.publishGovernanceRecord(event.getBlockNumber(), event.getTransactionId(), event.getEventName(), record);
+                break;
+            }
+            default:
+                logger.debug("Ignoring chaincode event '{}' in block {}", event.getEventName(), event.getBlockNumber());
+        }
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(retryBackoffMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (catchUpWatchdog != null) {
+            catchUpWatchdog.shutdownNow();
+        }
+        CloseableIterator<ChaincodeEvent> current = events;
+        if (current != null) {
+            current.close();
+        }
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes the {@link LedgerView} to a local binary snapshot, periodically and on shutdown, and restores it on
+ * startup so the view can serve reads as soon as the event stream reconnects instead of after a full
+ * GetAll seed. {@link LedgerEventListener} then resumes from the snapshot's block height.
+ * <p>
+ * Format (big-endian): magic, version, last block number, written-at millis, the trust records, the governance
+ * records, then a CRC32 of everything before it. Each record list is a 1 byte before every record and a 0 byte at
+ * the end, so the writer can stream the live maps without counting first. A record is its fields in declaration
+ * order as length-prefixed UTF-8, with length -1 for null.
+ */
+@Component
+public class LedgerSnapshotter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerSnapshotter.class);
+
+    private static final int MAGIC = 0x54525356; // "TRSV"
+    private static final int VERSION = 1;
+    private static final int NULL_LENGTH = -1;
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+
+    @Value("${trustregistry.view.enabled:false}")
+    private boolean viewEnabled;
+
+    @Value("${trustregistry.view.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trustregistry.view.snapshot.file:./data/ledger-view.snapshot}")
+    private String snapshotFile;
+
+    @Value("${trustregistry.view.snapshot.interval-ms:300000}")
+    private long intervalMs;
+
+    private final LedgerView ledgerView;
+
+    private ScheduledExecutorService scheduler;
+    private volatile long lastWrittenBlockNumber = -1;
+
+    public LedgerSnapshotter(LedgerView ledgerView) {
+        this.ledgerView = ledgerView;
+    }
+
+    /**
+     * Runs before the event listener starts (it subscribes on ApplicationReadyEvent), so the listener already
+     * sees a seeded view and resumes from its block height.
+     */
+    @PostConstruct
+    public void init() {
+        if (!viewEnabled || !enabled) {
+            return;
+        }
+        restore();
+        if (intervalMs > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ledger-view-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::writeQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        writeQuietly();
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (Exception e) {
+            logger.warn("Failed to write ledger view snapshot to {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the view to a temporary file and moves it over the previous snapshot, so a crash mid-write never
+     * leaves a truncated snapshot behind. Skipped until the view is seeded and has seen at least one block, since
+     * without a block height there is nowhere safe to resume from.
+     */
+    void write() throws IOException {
+        // Read the block height before the records: anything applied while iterating is from this block or a
+        // later one, and is replayed on restore.
+        long blockNumber = ledgerView.getLastBlockNumber();
+        if (!ledgerView.isSeeded() || blockNumber < 0 || blockNumber == lastWrittenBlockNumber) {
+            return;
+        }
+        long start = System.nanoTime();
+        Path target = Paths.get(snapshotFile).toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        CRC32 crc = new CRC32();
+        int trustCount = 0;
+        int governanceCount = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(temp), crc), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(blockNumber);
+            out.writeLong(System.currentTimeMillis());
+
+            for (TrustRecord record : ledgerView.trustRecords()) {
+                out.writeByte(RECORD);
+                writeTrustRecord(out, record);
+                trustCount++;
+            }
+            out.writeByte(END);
+            for (GovernanceRecord record : ledgerView.governanceRecords()) {
+                out.writeByte(RECORD);
+                writeGovernanceRecord(out, record);
+                governanceCount++;
+            }
+            out.writeByte(END);
+            out.flush();
+            // The checksum covers everything above; it is read after the flush so no bytes are still buffered.
+            out.writeLong(crc.getValue());
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastWrittenBlockNumber = blockNumber;
+        logger.info("Wrote ledger view snapshot at block {} ({} trust records, {} governance records) in {} ms",
+                blockNumber, trustCount, governanceCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Loads the snapshot into the view, if there is a usable one. A missing, corrupt or incompatible snapshot is
+     * ignored and the listener seeds from the peer as before.
+     */
+    void restore() {
+        Path path = Paths.get(snapshotFile);
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!verify(buffer)) {
+                return;
+            }
+            long blockNumber = buffer.getLong();
+            buffer.getLong(); // written-at millis, informational only
+            int trustCount = 0;
+            while (buffer.get() == RECORD) {
+                ledgerView.upsertTrustRecord(readTrustRecord(buffer));
+                trustCount++;
+            }
+            int governanceCount = 0;
+            while (buffer.get() == RECORD) {
+                ledgerView.upsertGovernanceRecord(readGovernanceRecord(buffer));
+                governanceCount++;
+            }
+            ledgerView.markBlockProcessed(blockNumber);
+            ledgerView.markSeeded();
+            lastWrittenBlockNumber = blockNumber;
+            logger.info("Restored ledger view snapshot at block {} ({} trust records, {} governance records) in {} ms",
+                    blockNumber, trustCount, governanceCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (NoSuchFileException e) {
+            logger.info("No ledger view snapshot at {}; the view will be seeded from the peer", path);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable ledger view snapshot {}: {}", path, e.toString());
+        }
+    }
+
+    /**
+     * Checks the header and checksum, leaving the buffer positioned after the version on success.
+     */
+    private boolean verify(MappedByteBuffer buffer) {
+        int length = buffer.remaining();
+        if (length < 8 + Long.BYTES || buffer.getInt() != MAGIC) {
+            logger.warn("Ignoring ledger view snapshot {}: not a snapshot file", snapshotFile);
+            return false;
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            logger.warn("Ignoring ledger view snapshot {}: unsupported version {}", snapshotFile, version);
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(length - Long.BYTES));
+        if (crc.getValue() != buffer.getLong(length - Long.BYTES)) {
+            logger.warn("Ignoring ledger view snapshot {}: checksum mismatch", snapshotFile);
+            return false;
+        }
+        return true;
+    }
+
+    private static void writeTrustRecord(DataOutputStream out, TrustRecord record) throws IOException {
+        writeString(out, record.getId());
+        writeString(out, record.getCreatedAt());
+        writeString(out, record.getUpdatedAt());
+        writeString(out, record.getDeletedAt());
+        writeString(out, record.getIdentifier());
+        writeString(out, record.getEntityType());
+        writeString(out, record.getCredentialType());
+        writeString(out, record.getGovernanceFrameworkURI());
+        writeString(out, record.getDidDocument());
+        writeString(out, record.getValidFromDt());
+        writeString(out, record.getValidUntilDt());
+        writeString(out, record.getStatus());
+        writeString(out, record.getStatusDetail());
+    }
+
+    private static TrustRecord readTrustRecord(ByteBuffer buffer) {
+        return new TrustRecord(readString(buffer), readString(buffer), readString(buffer), readString(buffer),
+                readString(buffer), readString(buffer), readString(buffer), readString(buffer), readString(buffer),
+                readString(buffer), readString(buffer), readString(buffer), readString(buffer));
+    }
+
+    private static void writeGovernanceRecord(DataOutputStream out, GovernanceRecord record) throws IOException {
+        writeString(out, record.getId());
+        writeString(out, record.getCreatedAt());
+        writeString(out, record.getUpdatedAt());
+        writeString(out, record.getDeletedAt());
+        writeString(out, record.getIdentifier());
+        writeString(out, record.getName());
+        writeString(out, record.getStatus());
+    }
+
+    private static GovernanceRecord readGovernanceRecord(ByteBuffer buffer) {
+        return new GovernanceRecord(readString(buffer), readString(buffer), readString(buffer), readString(buffer),
+                readString(buffer), readString(buffer), readString(buffer));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
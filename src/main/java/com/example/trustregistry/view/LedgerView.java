@@ -0,0 +1,230 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * In-memory materialized view of the trust registry world state, kept up to date by {@link LedgerEventListener}.
+ * Reads are only served from the view while it is connected to the event stream, or was disconnected for less
+ * than the configured staleness bound.
+ */
+@Component
+public class LedgerView {
+
+    // Distinct repeating field values held once; status details are free text, so this bounds what they can take.
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    @Value("${trustregistry.view.max-staleness-ms:5000}")
+    private long maxStalenessMs;
+
+    @Value("${trustregistry.view.deflate-min-bytes:64}")
+    private int deflateMinBytes;
+
+    // Sorted by key so list endpoints can page with a stable "after key" cursor. Trust records are held compact,
+    // as they dominate the view's heap, and materialized on the way out.
+    private final NavigableMap<String, CompactTrustRecord> trustRecords = new ConcurrentSkipListMap<>();
+    private final StringDictionary dictionary = new StringDictionary(MAX_DICTIONARY_SIZE);
+    private final NavigableMap<String, GovernanceRecord> governanceRecords = new ConcurrentSkipListMap<>();
+    private final TrustRecordIndex trustRecordIndex = new TrustRecordIndex();
+    private final ValidityIndex validityIndex = new ValidityIndex();
+
+    private volatile boolean seeded;
+    private volatile boolean connected;
+    private volatile long disconnectedAtMillis;
+    private volatile long lastBlockNumber = -1;
+
+    // Bumped after every write, so a version read before a query is never newer than the query's result.
+    private final AtomicLong version = new AtomicLong();
+    // Distinguishes entity tags across restarts, where the version counter starts over.
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    public synchronized void upsertTrustRecord(TrustRecord record) {
+        CompactTrustRecord compact = CompactTrustRecord.of(record, dictionary, deflateMinBytes);
+        CompactTrustRecord previous = trustRecords.put(record.getId(), compact);
+        if (previous != null) {
+            TrustRecord replaced = previous.toTrustRecord(dictionary);
+            trustRecordIndex.remove(replaced);
+            validityIndex.remove(replaced);
+        }
+        trustRecordIndex.add(record);
+        validityIndex.add(record);
+        version.incrementAndGet();
+    }
+
+    public void upsertGovernanceRecord(GovernanceRecord record) {
+        governanceRecords.put(record.getIdentifier(), record);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns a strong entity tag for the given resource as read from the view from now on: it changes with every
+     * write, carries the block height, and folds in a CRC32C of {@code resource} (e.g. the query and its arguments)
+     * so two different queries never share a tag. Read it before running the query, so an unchanged tag means an
+     * unchanged result.
+     */
+    public String etag(String resource) {
+        CRC32C crc = new CRC32C();
+        crc.update(resource.getBytes(StandardCharsets.UTF_8));
+        return "\"" + lastBlockNumber + "-" + epoch + "-" + version.get() + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    public TrustRecord getTrustRecord(String id) {
+        return materialize(trustRecords.get(id));
+    }
+
+    public GovernanceRecord getGovernanceRecord(String identifier) {
+        return governanceRecords.get(identifier);
+    }
+
+    public List<TrustRecord> getAllTrustRecords() {
+        List<TrustRecord> result = new ArrayList<>(trustRecords.size());
+        for (CompactTrustRecord record : trustRecords.values()) {
+            result.add(record.toTrustRecord(dictionary));
+        }
+        return result;
+    }
+
+    public List<GovernanceRecord> getAllGovernanceRecords() {
+        return new ArrayList<>(governanceRecords.values());
+    }
+
+    /**
+     * Returns up to {@code limit} trust records ordered by ID, starting after {@code afterId} (null for the first page).
+     */
+    public List<TrustRecord> pageTrustRecords(String afterId, int limit) {
+        return page(trustRecords, afterId, limit, this::materialize);
+    }
+
+    /**
+     * Returns up to {@code limit} governance records ordered by identifier, starting after {@code afterIdentifier}.
+     */
+    public List<GovernanceRecord> pageGovernanceRecords(String afterIdentifier, int limit) {
+        return page(governanceRecords, afterIdentifier, limit, Function.identity());
+    }
+
+    /**
+     * Iterates the trust records, materializing each one only as it is reached.
+     */
+    public Iterable<TrustRecord> trustRecords() {
+        return () -> trustRecords.values().stream().map(this::materialize).iterator();
+    }
+
+    public Iterable<GovernanceRecord> governanceRecords() {
+        return governanceRecords.values();
+    }
+
+    private static <S, T> List<T> page(NavigableMap<String, S> records, String afterKey, int limit,
+                                       Function<S, T> materializer) {
+        Map<String, S> tail = afterKey == null ? records : records.tailMap(afterKey, false);
+        List<T> result = new ArrayList<>(Math.min(limit, 1024));
+        for (S record : tail.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(materializer.apply(record));
+        }
+        return result;
+    }
+
+    private TrustRecord materialize(CompactTrustRecord record) {
+        return record == null ? null : record.toTrustRecord(dictionary);
+    }
+
+    public List<TrustRecord> getTrustRecordsByCredentialType(String credentialType) {
+        return findTrustRecords(Map.of(TrustRecordField.CREDENTIAL_TYPE, credentialType));
+    }
+
+    /**
+     * Returns the trust records matching every field criterion (AND), answered from the secondary indexes.
+     */
+    public List<TrustRecord> findTrustRecords(Map<TrustRecordField, String> criteria) {
+        if (criteria.isEmpty()) {
+            return getAllTrustRecords();
+        }
+        Set<String> ids = trustRecordIndex.lookup(criteria);
+        List<TrustRecord> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CompactTrustRecord record = trustRecords.get(id);
+            if (record != null) {
+                result.add(record.toTrustRecord(dictionary));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the trust records whose validity window contains {@code epochMillis}, optionally only those of one
+     * credential type, answered from the validity interval index.
+     */
+    public List<TrustRecord> findTrustRecordsValidAt(long epochMillis, String credentialType) {
+        List<String> ids = validityIndex.validAt(epochMillis, credentialType);
+        List<TrustRecord> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CompactTrustRecord record = trustRecords.get(id);
+            if (record != null) {
+                result.add(record.toTrustRecord(dictionary));
+            }
+        }
+        return result;
+    }
+
+    public int trustRecordCount() {
+        return trustRecords.size();
+    }
+
+    public int governanceRecordCount() {
+        return governanceRecords.size();
+    }
+
+    public long getLastBlockNumber() {
+        return lastBlockNumber;
+    }
+
+    void markBlockProcessed(long blockNumber) {
+        if (blockNumber > lastBlockNumber) {
+            lastBlockNumber = blockNumber;
+        }
+    }
+
+    void markSeeded() {
+        seeded = true;
+    }
+
+    boolean isSeeded() {
+        return seeded;
+    }
+
+    void markConnected() {
+        connected = true;
+    }
+
+    void markDisconnected() {
+        if (connected) {
+            disconnectedAtMillis = System.currentTimeMillis();
+        }
+        connected = false;
+    }
+
+    /**
+     * Returns true when reads may be answered from the view without exceeding the staleness bound.
+     */
+    public boolean isServable() {
+        if (!seeded) {
+            return false;
+        }
+        return connected || System.currentTimeMillis() - disconnectedAtMillis <= maxStalenessMs;
+    }
+}
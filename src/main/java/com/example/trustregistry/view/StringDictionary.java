@@ -0,0 +1,56 @@
+package com.example.trustregistry.view;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary mapping repeated string values to dense int codes, so each distinct value is held once
+ * however many records use it. Codes are never reclaimed, so it stops taking new values at {@code maxSize} and
+ * callers keep those values themselves.
+ */
+class StringDictionary {
+
+    static final int NULL_CODE = -1;
+    static final int NOT_ENCODED = -2;
+
+    private final int maxSize;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int size;
+
+    StringDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    String decode(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    private synchronized int add(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == maxSize) {
+            return NOT_ENCODED;
+        }
+        // The value is stored before its code is published, so a reader holding the code always finds it.
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.TrustRecord;
+
+import java.util.function.Function;
+
+/**
+ * Trust record fields that carry a secondary index in the {@link LedgerView}, named by their JSON property.
+ */
+public enum TrustRecordField {
+    CREDENTIAL_TYPE("credential_type", TrustRecord::getCredentialType),
+    ENTITY_TYPE("entity_type", TrustRecord::getEntityType),
+    STATUS("status", TrustRecord::getStatus),
+    IDENTIFIER("identifier", TrustRecord::getIdentifier),
+    GOVERNANCE_FRAMEWORK_URI("governance_framework_uri", TrustRecord::getGovernanceFrameworkURI);
+
+    private final String jsonName;
+    private final Function<TrustRecord, String> accessor;
+
+    TrustRecordField(String jsonName, Function<TrustRecord, String> accessor) {
+        this.jsonName = jsonName;
+        this.accessor = accessor;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public String valueOf(TrustRecord record) {
+        return accessor.apply(record);
+    }
+
+    public static TrustRecordField fromJsonName(String jsonName) {
+        for (TrustRecordField field : values()) {
+            if (field.jsonName.equals(jsonName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
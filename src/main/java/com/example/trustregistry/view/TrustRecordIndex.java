@@ -0,0 +1,68 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.TrustRecord;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary indexes from field value to trust record IDs. Multi-field filters are answered by intersecting
+ * the posting sets, starting from the smallest one.
+ */
+class TrustRecordIndex {
+
+    private final Map<TrustRecordField, Map<String, Set<String>>> indexes = new EnumMap<>(TrustRecordField.class);
+
+    TrustRecordIndex() {
+        for (TrustRecordField field : TrustRecordField.values()) {
+            indexes.put(field, new ConcurrentHashMap<>());
+        }
+    }
+
+    void add(TrustRecord record) {
+        for (TrustRecordField field : TrustRecordField.values()) {
+            String value = field.valueOf(record);
+            if (value != null) {
+                indexes.get(field).computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet()).add(record.getId());
+            }
+        }
+    }
+
+    void remove(TrustRecord record) {
+        for (TrustRecordField field : TrustRecordField.values()) {
+            String value = field.valueOf(record);
+            if (value != null) {
+                indexes.get(field).computeIfPresent(value, (v, ids) -> {
+                    ids.remove(record.getId());
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    /**
+     * Returns the IDs of records matching every criterion. Criteria must not be empty.
+     */
+    Set<String> lookup(Map<TrustRecordField, String> criteria) {
+        List<Set<String>> postings = new ArrayList<>(criteria.size());
+        for (Map.Entry<TrustRecordField, String> criterion : criteria.entrySet()) {
+            Set<String> ids = indexes.get(criterion.getKey()).get(criterion.getValue());
+            if (ids == null) {
+                return Set.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<String> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+}
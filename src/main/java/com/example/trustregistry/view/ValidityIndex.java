@@ -0,0 +1,261 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.TrustRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Validity windows of trust records, overall and per credential type, answering "valid at time T" with a centered
+ * interval tree in O(log n + k). Trees are rebuilt off the query path: a write is recorded in the affected bucket's
+ * delta, the bucket schedules one background rebuild, and until it lands queries use the previous tree and scan the
+ * delta, so bursts of event replay cost one rebuild rather than one per record and never stall a reader. Records
+ * whose window cannot be parsed are left out, since whether they are valid is unknown.
+ */
+class ValidityIndex {
+
+    private static final Executor SHARED_REBUILDER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "validity-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Executor rebuilder;
+    private final Bucket all;
+    private final Map<String, Bucket> byCredentialType = new ConcurrentHashMap<>();
+
+    ValidityIndex() {
+        this(SHARED_REBUILDER);
+    }
+
+    ValidityIndex(Executor rebuilder) {
+        this.rebuilder = rebuilder;
+        this.all = new Bucket(rebuilder);
+    }
+
+    void add(TrustRecord record) {
+        ValidityWindow window = ValidityWindow.of(record);
+        if (window == null) {
+            return;
+        }
+        Entry entry = new Entry(record.getId(), window.getFromMillis(), window.getUntilMillis());
+        all.put(entry);
+        if (record.getCredentialType() != null) {
+            byCredentialType.computeIfAbsent(record.getCredentialType(), t -> new Bucket(rebuilder)).put(entry);
+        }
+    }
+
+    void remove(TrustRecord record) {
+        all.remove(record.getId());
+        if (record.getCredentialType() != null) {
+            Bucket bucket = byCredentialType.get(record.getCredentialType());
+            if (bucket != null) {
+                bucket.remove(record.getId());
+            }
+        }
+    }
+
+    /**
+     * Returns the IDs of records whose window contains {@code epochMillis}, optionally of one credential type.
+     */
+    List<String> validAt(long epochMillis, String credentialType) {
+        Bucket bucket = credentialType == null ? all : byCredentialType.get(credentialType);
+        if (bucket == null) {
+            return List.of();
+        }
+        // One read of the state, so the tree and the delta describe the same snapshot.
+        State state = bucket.state;
+        Map<String, Change> delta = state.delta;
+        List<String> ids = new ArrayList<>();
+        for (Node node = state.root; node != null; ) {
+            if (epochMillis < node.center) {
+                for (Entry entry : node.byFrom) {
+                    if (entry.from > epochMillis) {
+                        break;
+                    }
+                    addUnchanged(ids, entry, delta);
+                }
+                node = node.left;
+            } else if (epochMillis > node.center) {
+                for (Entry entry : node.byUntil) {
+                    if (entry.until < epochMillis) {
+                        break;
+                    }
+                    addUnchanged(ids, entry, delta);
+                }
+                node = node.right;
+            } else {
+                for (Entry entry : node.byFrom) {
+                    addUnchanged(ids, entry, delta);
+                }
+                break;
+            }
+        }
+        for (Change change : delta.values()) {
+            Entry entry = change.entry;
+            if (entry != null && entry.from <= epochMillis && entry.until >= epochMillis) {
+                ids.add(entry.id);
+            }
+        }
+        return ids;
+    }
+
+    private static void addUnchanged(List<String> ids, Entry entry, Map<String, Change> delta) {
+        // A record written since the tree was built is answered from the delta instead.
+        if (delta.isEmpty() || !delta.containsKey(entry.id)) {
+            ids.add(entry.id);
+        }
+    }
+
+    private static final class Bucket {
+
+        private final Executor rebuilder;
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        // Guarded by this bucket: the write sequence, and whether a rebuild is scheduled and not yet started.
+        private long sequence;
+        private boolean rebuildScheduled;
+        private volatile State state = new State(null, new ConcurrentHashMap<>());
+
+        Bucket(Executor rebuilder) {
+            this.rebuilder = rebuilder;
+        }
+
+        synchronized void put(Entry entry) {
+            entries.put(entry.id, entry);
+            record(entry.id, entry);
+        }
+
+        synchronized void remove(String id) {
+            if (entries.remove(id) != null) {
+                record(id, null);
+            }
+        }
+
+        private void record(String id, Entry entry) {
+            state.delta.put(id, new Change(entry, ++sequence));
+            if (!rebuildScheduled) {
+                rebuildScheduled = true;
+                rebuilder.execute(this::rebuild);
+            }
+        }
+
+        private void rebuild() {
+            List<Entry> snapshot;
+            long snapshotSequence;
+            synchronized (this) {
+                rebuildScheduled = false;
+                snapshot = new ArrayList<>(entries.values());
+                snapshotSequence = sequence;
+            }
+            Node root = build(snapshot);
+            synchronized (this) {
+                // Writes that landed while the tree was building are not in it, so they stay in the delta.
+                Map<String, Change> delta = new ConcurrentHashMap<>();
+                for (Map.Entry<String, Change> change : state.delta.entrySet()) {
+                    if (change.getValue().sequence > snapshotSequence) {
+                        delta.put(change.getKey(), change.getValue());
+                    }
+                }
+                state = new State(root, delta);
+            }
+        }
+    }
+
+    /**
+     * A tree built from a snapshot of a bucket, and the records written since: their latest entry, or null
+     * for a removal.
+     */
+    private static final class State {
+
+        private final Node root;
+        private final Map<String, Change> delta;
+
+        State(Node root, Map<String, Change> delta) {
+            this.root = root;
+            this.delta = delta;
+        }
+    }
+
+    private static final class Change {
+
+        private final Entry entry;
+        private final long sequence;
+
+        Change(Entry entry, long sequence) {
+            this.entry = entry;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Node {
+
+        private final long center;
+        // The intervals containing center, sorted by ascending start and by descending end.
+        private final Entry[] byFrom;
+        private final Entry[] byUntil;
+        private final Node left;
+        private final Node right;
+
+        Node(long center, Entry[] byFrom, Entry[] byUntil, Node left, Node right) {
+            this.center = center;
+            this.byFrom = byFrom;
+            this.byUntil = byUntil;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String id;
+        private final long from;
+        private final long until;
+
+        Entry(String id, long from, long until) {
+            this.id = id;
+            this.from = from;
+            this.until = until;
+        }
+    }
+
+    /**
+     * Splits on the median endpoint, which belongs to some interval, so every node keeps at least one interval and
+     * each side gets at most half of them.
+     */
+    private static Node build(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        long[] endpoints = new long[entries.size() * 2];
+        for (int i = 0; i < entries.size(); i++) {
+            endpoints[2 * i] = entries.get(i).from;
+            endpoints[2 * i + 1] = entries.get(i).until;
+        }
+        Arrays.sort(endpoints);
+        long center = endpoints[entries.size()];
+
+        List<Entry> left = new ArrayList<>();
+        List<Entry> right = new ArrayList<>();
+        List<Entry> overlapping = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.until < center) {
+                left.add(entry);
+            } else if (entry.from > center) {
+                right.add(entry);
+            } else {
+                overlapping.add(entry);
+            }
+        }
+        Entry[] byFrom = overlapping.toArray(new Entry[0]);
+        Arrays.sort(byFrom, Comparator.comparingLong(entry -> entry.from));
+        Entry[] byUntil = overlapping.toArray(new Entry[0]);
+        Arrays.sort(byUntil, Comparator.comparingLong((Entry entry) -> entry.until).reversed());
+        return new Node(center, byFrom, byUntil, build(left), build(right));
+    }
+}
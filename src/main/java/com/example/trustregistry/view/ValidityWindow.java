@@ -0,0 +1,70 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.TrustRecord;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The parsed {@code valid_from_dt}/{@code valid_until_dt} of a trust record as epoch milliseconds, both ends
+ * inclusive. A missing bound is open. Timestamps without an offset are taken as UTC, and a bare date as the
+ * start of that day, since records written before validation was added use all three forms.
+ */
+public final class ValidityWindow {
+
+    private final long fromMillis;
+    private final long untilMillis;
+
+    private ValidityWindow(long fromMillis, long untilMillis) {
+        this.fromMillis = fromMillis;
+        this.untilMillis = untilMillis;
+    }
+
+    /**
+     * Returns the record's validity window, or null when a bound is present but not a recognizable timestamp.
+     */
+    public static ValidityWindow of(TrustRecord record) {
+        Long from = parse(record.getValidFromDt(), Long.MIN_VALUE);
+        Long until = parse(record.getValidUntilDt(), Long.MAX_VALUE);
+        if (from == null || until == null) {
+            return null;
+        }
+        return new ValidityWindow(from, until);
+    }
+
+    public boolean contains(long epochMillis) {
+        return fromMillis <= epochMillis && epochMillis <= untilMillis;
+    }
+
+    long getFromMillis() {
+        return fromMillis;
+    }
+
+    long getUntilMillis() {
+        return untilMillis;
+    }
+
+    private static Long parse(String value, long openBound) {
+        if (value == null || value.isBlank()) {
+            return openBound;
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // Fall through to the offset-less forms.
+        }
+        try {
+            return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // Fall through.
+        }
+        try {
+            return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.trustregistry;
+
+import com.example.trustregistry.cache.EvaluateCache;
+import com.example.trustregistry.gateway.CircuitBreaker;
+import com.example.trustregistry.gateway.LedgerOverloadedException;
+import com.example.trustregistry.gateway.PeerConnection;
+import com.example.trustregistry.gateway.PeerConnectionPool;
+import com.example.trustregistry.metrics.LedgerMetrics;
+import io.grpc.CallOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hyperledger.fabric.client.Contract;
+import org.hyperledger.fabric.client.Proposal;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FabricGatewayClientTest {
+
+    @Test
+    void testFullLedgerExecutorUsesConfiguredRetryAfter() {
+        FabricGatewayClient client = new FabricGatewayClient(task -> {
+            throw new RejectedExecutionException("queue full");
+        }, null, new EvaluateCache());
+        ReflectionTestUtils.setField(client, "retryAfterSeconds", 7L);
+
+        CompletableFuture<byte[]> result = client.evaluateTransactionBytesAsync("ReadTrustRecord", "tr-1");
+
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        LedgerOverloadedException overloaded = assertInstanceOf(LedgerOverloadedException.class, e.getCause());
+        assertEquals(7, overloaded.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testReadAfterInvalidationDoesNotJoinEarlierFlight() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Proposal proposal = mock(Proposal.class);
+        when(proposal.evaluate(ArgumentMatchers.<UnaryOperator<CallOptions>>any())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                firstStarted.countDown();
+                releaseFirst.await(5, TimeUnit.SECONDS);
+                return "before".getBytes(StandardCharsets.UTF_8);
+            }
+            return "after".getBytes(StandardCharsets.UTF_8);
+        });
+        Proposal.Builder builder = mock(Proposal.Builder.class, RETURNS_SELF);
+        when(builder.build()).thenReturn(proposal);
+        Contract contract = mock(Contract.class);
+        when(contract.newProposal(anyString())).thenReturn(builder);
+
+        EvaluateCache evaluateCache = new EvaluateCache();
+        ReflectionTestUtils.setField(evaluateCache, "enabled", true);
+        ReflectionTestUtils.setField(evaluateCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(evaluateCache, "ttlSeconds", 30L);
+        evaluateCache.init();
+        FabricGatewayClient client = new FabricGatewayClient(Runnable::run,
+                new LedgerMetrics(new SimpleMeterRegistry()), evaluateCache);
+        ReflectionTestUtils.setField(client, "singleFlight", true);
+        ReflectionTestUtils.setField(client, "connectionPool", new PeerConnectionPool(List.of(new PeerConnection(
+                "peer0:7051", null, null, null, contract, new CircuitBreaker("peer0:7051", 3, 60_000)))));
+
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> evaluate(client));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        // A submit commits while the first read is still at the peer.
+        evaluateCache.invalidateAfterSubmit("CreateTrustRecord", "tr-1");
+        byte[] second = client.evaluateTransactionBytes("ReadTrustRecord", "tr-1");
+        releaseFirst.countDown();
+
+        assertEquals("after", new String(second, StandardCharsets.UTF_8));
+        assertEquals("before", new String(first.get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        assertEquals(2, calls.get());
+    }
+
+    private static byte[] evaluate(FabricGatewayClient client) {
+        try {
+            return client.evaluateTransactionBytes("ReadTrustRecord", "tr-1");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.trustregistry.batch;
+
+import com.example.trustregistry.FabricGatewayClient;
+import io.grpc.Status;
+import org.hyperledger.fabric.client.CommitStatusException;
+import org.hyperledger.fabric.client.EndorseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TrustRecordBatchSubmitterTest {
+
+    private static final String BULK_FUNCTION = "CreateTrustRecords";
+
+    @Mock
+    private FabricGatewayClient fabricGatewayClient;
+
+    private TrustRecordBatchSubmitter submitter;
+
+    @BeforeEach
+    void setUp() {
+        submitter = new TrustRecordBatchSubmitter(fabricGatewayClient);
+        ReflectionTestUtils.setField(submitter, "bulkFunction", BULK_FUNCTION);
+        ReflectionTestUtils.setField(submitter, "maxBulkSize", 100);
+        ReflectionTestUtils.setField(submitter, "windowMs", 0L);
+        ReflectionTestUtils.setField(submitter, "parallelism", 2);
+        submitter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        submitter.shutdown();
+    }
+
+    @Test
+    void testRejectedBulkIsRetriedPerRecord() throws Exception {
+        when(fabricGatewayClient.submitTransaction(eq(BULK_FUNCTION), anyString()))
+                .thenThrow(new Exception("chaincode response 500, record tr-2 is invalid"));
+        when(fabricGatewayClient.submitTransaction("CreateTrustRecord", "{\"id\":\"tr-1\"}")).thenReturn("tr-1");
+        when(fabricGatewayClient.submitTransaction("CreateTrustRecord", "{\"id\":\"tr-2\"}"))
+                .thenThrow(new Exception("chaincode response 500, record tr-2 is invalid"));
+
+        List<CompletableFuture<String>> futures = submitter.submitAll(List.of("tr-1", "tr-2"),
+                List.of("{\"id\":\"tr-1\"}", "{\"id\":\"tr-2\"}"));
+
+        assertEquals("tr-1", futures.get(0).get(5, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> futures.get(1).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testIndeterminateBulkFailureIsNotRetried() throws Exception {
+        Exception failure = new CommitStatusException("tx1", Status.DEADLINE_EXCEEDED.asRuntimeException());
+        when(fabricGatewayClient.submitTransaction(eq(BULK_FUNCTION), anyString())).thenThrow(failure);
+
+        List<CompletableFuture<String>> futures = submitter.submitAll(List.of("tr-1", "tr-2"),
+                List.of("{\"id\":\"tr-1\"}", "{\"id\":\"tr-2\"}"));
+
+        for (CompletableFuture<String> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        verify(fabricGatewayClient, never()).submitTransaction(eq("CreateTrustRecord"), anyString());
+    }
+
+    @Test
+    void testUnavailableEndorserIsNotRetried() throws Exception {
+        Exception failure = new Exception("unavailable", new EndorseException("tx1", Status.UNAVAILABLE.asRuntimeException()));
+        when(fabricGatewayClient.submitTransaction(eq(BULK_FUNCTION), anyString())).thenThrow(failure);
+
+        List<CompletableFuture<String>> futures = submitter.submitAll(List.of("tr-1", "tr-2"),
+                List.of("{\"id\":\"tr-1\"}", "{\"id\":\"tr-2\"}"));
+
+        for (CompletableFuture<String> future : futures) {
+            assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        }
+        verify(fabricGatewayClient, never()).submitTransaction(eq("CreateTrustRecord"), anyString());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.trustregistry.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class EvaluateCacheTest {
+
+    private EvaluateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EvaluateCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        cache.init();
+    }
+
+    @Test
+    void testGetLoadsOnceAndCaches() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            byte[] result = cache.get("ReadTrustRecord", new String[]{"tr-1"}, () -> {
+                loads.incrementAndGet();
+                return bytes("v1");
+            });
+            assertArrayEquals(bytes("v1"), result);
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testCreateInvalidatesRecordAndListQueries() throws Exception {
+        cache.get("ReadTrustRecord", new String[]{"tr-1"}, () -> bytes("v1"));
+        cache.get("ReadTrustRecord", new String[]{"tr-2"}, () -> bytes("v2"));
+        cache.get("GetAllTrustRecords", new String[0], () -> bytes("all"));
+        cache.get("GetTrustRecordsByCredentialType", new String[]{"KYC"}, () -> bytes("kyc"));
+        cache.get("ReadGovernanceRecord", new String[]{"gr-1"}, () -> bytes("g1"));
+
+        cache.invalidateAfterSubmit("CreateTrustRecord", "tr-1");
+
+        assertNull(cache.getIfPresent("ReadTrustRecord", "tr-1"));
+        assertNotNull(cache.getIfPresent("ReadTrustRecord", "tr-2"));
+        assertNull(cache.getIfPresent("GetAllTrustRecords"));
+        assertNull(cache.getIfPresent("GetTrustRecordsByCredentialType", "KYC"));
+        assertNotNull(cache.getIfPresent("ReadGovernanceRecord", "gr-1"));
+    }
+
+    @Test
+    void testUnknownFunctionOrNullKeyClearsEverything() throws Exception {
+        cache.get("ReadGovernanceRecord", new String[]{"gr-1"}, () -> bytes("g1"));
+        cache.invalidateAfterSubmit("InitLedger", "x");
+        assertNull(cache.getIfPresent("ReadGovernanceRecord", "gr-1"));
+
+        cache.get("ReadGovernanceRecord", new String[]{"gr-1"}, () -> bytes("g1"));
+        cache.invalidateAfterSubmit("CreateGovernanceRecord", null);
+        assertNull(cache.getIfPresent("ReadGovernanceRecord", "gr-1"));
+    }
+
+    @Test
+    void testLoadOverlappingInvalidationIsNotCached() throws Exception {
+        byte[] result = cache.get("ReadTrustRecord", new String[]{"tr-1"}, () -> {
+            // The submit commits and invalidates while this read of the old value is in flight.
+            cache.invalidateAfterSubmit("CreateTrustRecord", "tr-1");
+            return bytes("stale");
+        });
+
+        assertArrayEquals(bytes("stale"), result);
+        assertNull(cache.getIfPresent("ReadTrustRecord", "tr-1"));
+    }
+
+    @Test
+    void testPutSkippedWhenGenerationChanged() {
+        long generation = cache.generation("GetAllTrustRecords");
+        cache.invalidateAfterSubmit("CreateTrustRecord", "tr-9");
+        cache.put("GetAllTrustRecords", generation, bytes("stale"));
+        assertNull(cache.getIfPresent("GetAllTrustRecords"));
+
+        generation = cache.generation("GetAllTrustRecords");
+        cache.put("GetAllTrustRecords", generation, bytes("fresh"));
+        assertArrayEquals(bytes("fresh"), cache.getIfPresent("GetAllTrustRecords"));
+    }
+
+    @Test
+    void testUnrelatedInvalidationDoesNotBlockPut() {
+        long generation = cache.generation("ReadGovernanceRecord");
+        cache.invalidateAfterSubmit("CreateTrustRecord", "tr-1");
+        cache.put("ReadGovernanceRecord", generation, bytes("g1"), "gr-1");
+        assertArrayEquals(bytes("g1"), cache.getIfPresent("ReadGovernanceRecord", "gr-1"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
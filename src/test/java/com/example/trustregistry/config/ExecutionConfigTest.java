@@ -0,0 +1,40 @@
+package com.example.trustregistry.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExecutionConfigTest {
+
+    @Test
+    void testPlatformLedgerExecutorRejectsPastQueueCapacity() throws Exception {
+        ExecutionConfig config = new ExecutionConfig();
+        ReflectionTestUtils.setField(config, "ledgerThreads", 2);
+        ReflectionTestUtils.setField(config, "ledgerQueueCapacity", 3);
+        ExecutorService executor = config.ledgerExecutor(new MockEnvironment());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 5; i++) {
+                executor.execute(() -> awaitQuietly(release));
+            }
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
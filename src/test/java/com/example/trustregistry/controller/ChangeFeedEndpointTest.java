@@ -0,0 +1,183 @@
+package com.example.trustregistry.controller;
+
+import com.example.trustregistry.FabricGatewayClient;
+import com.example.trustregistry.batch.TrustRecordBatchSubmitter;
+import com.example.trustregistry.cache.EvaluateCache;
+import com.example.trustregistry.feed.ChangeFeed;
+import com.example.trustregistry.idempotency.IdempotencyStore;
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import com.example.trustregistry.tx.CommitStatusTracker;
+import com.example.trustregistry.validation.RecordValidator;
+import com.example.trustregistry.view.LedgerView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ChangeFeedEndpointTest {
+
+    private static final String CHANGES = "/api/trustregistry/changes";
+
+    private ChangeFeed feed;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ChangeFeed(new ObjectMapper());
+        ReflectionTestUtils.setField(feed, "enabled", true);
+        ReflectionTestUtils.setField(feed, "historySize", 10_000);
+        ReflectionTestUtils.setField(feed, "subscriberBuffer", 1000);
+        ReflectionTestUtils.setField(feed, "maxSubscribers", 100);
+        ReflectionTestUtils.setField(feed, "dispatchThreads", 4);
+        ReflectionTestUtils.setField(feed, "heartbeatMs", 60_000L);
+        ReflectionTestUtils.setField(feed, "timeoutMs", 60_000L);
+        feed.init();
+        feed.streamStarted(1);
+
+        TrustRegistryController controller = new TrustRegistryController(mock(FabricGatewayClient.class),
+                new ObjectMapper(), mock(EvaluateCache.class), mock(LedgerView.class),
+                mock(TrustRecordBatchSubmitter.class), mock(CommitStatusTracker.class), mock(RecordValidator.class),
+                mock(IdempotencyStore.class), feed);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void testFiltersByCredentialTypeAndIdentifier() throws Exception {
+        MvcResult kyc = subscribe(get(CHANGES).param("credential_type", "KYC"));
+        MvcResult gov = subscribe(get(CHANGES).param("identifier", "did:example:gov"));
+
+        feed.publishTrustRecord(1, "tx-1", "CreateTrustRecord", trustRecord("tr-1", "KYC", "did:example:other"));
+        feed.publishTrustRecord(1, "tx-2", "CreateTrustRecord", trustRecord("tr-2", "AML", "did:example:gov"));
+        feed.publishGovernanceRecord(2, "tx-3", "CreateGovernanceRecord", governanceRecord("did:example:gov"));
+        feed.publishTrustRecord(3, "tx-4", "CreateTrustRecord", trustRecord("tr-4", "KYC", "did:example:gov"));
+
+        assertEquals(List.of("1:tx-1", "3:tx-4"), awaitEventIds(kyc, ids -> ids.size() >= 2));
+        assertEquals(List.of("1:tx-2", "2:tx-3", "3:tx-4"), awaitEventIds(gov, ids -> ids.size() >= 3));
+    }
+
+    @Test
+    void testReplaysAfterLastEventIdAndFromBlock() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            feed.publishTrustRecord(i, "tx-" + i, "CreateTrustRecord", trustRecord("tr-" + i, "KYC", "did:example:i"));
+        }
+
+        MvcResult resumed = subscribe(get(CHANGES).header("Last-Event-ID", "2:tx-2"));
+        MvcResult fromBlock = subscribe(get(CHANGES).param("from_block", "4"));
+
+        assertEquals(List.of("3:tx-3", "4:tx-4", "5:tx-5"), awaitEventIds(resumed, ids -> ids.size() >= 3));
+        assertEquals(List.of("4:tx-4", "5:tx-5"), awaitEventIds(fromBlock, ids -> ids.size() >= 2));
+    }
+
+    @Test
+    void testRejectsUnretainedAndMalformedPositions() throws Exception {
+        mockMvc.perform(get(CHANGES).header("Last-Event-ID", "not-an-id")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(CHANGES).param("from_block", "-1")).andExpect(status().isBadRequest());
+        // The history is complete from block 1 only.
+        mockMvc.perform(get(CHANGES).param("from_block", "0")).andExpect(status().isGone());
+    }
+
+    @Test
+    void testRejectsSubscribersBeyondTheLimit() throws Exception {
+        ReflectionTestUtils.setField(feed, "maxSubscribers", 1);
+        subscribe(get(CHANGES));
+
+        mockMvc.perform(get(CHANGES)).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testFloodIsDeliveredInOrderAcrossReconnects() throws Exception {
+        int events = 2000;
+        // Well below the flood, so the subscriber is likely to fall behind and be disconnected mid-way.
+        ReflectionTestUtils.setField(feed, "subscriberBuffer", 100);
+        MvcResult first = subscribe(get(CHANGES));
+        for (int i = 1; i <= events; i++) {
+            feed.publishTrustRecord(i, "tx-" + i, "CreateTrustRecord", trustRecord("tr-" + i, "KYC", "did:example:i"));
+        }
+
+        // A subscriber that fell a buffer behind is disconnected; resuming from its last event must close the gap.
+        List<String> received = new ArrayList<>(awaitEventIds(first, ids -> ids.size() == events || isCompleted(first)));
+        for (int reconnects = 0; received.size() < events; reconnects++) {
+            assertTrue(reconnects < 10, "too many reconnects");
+            String lastEventId = received.get(received.size() - 1);
+            MvcResult resumed = subscribe(get(CHANGES).header("Last-Event-ID", lastEventId));
+            int remaining = events - received.size();
+            received.addAll(awaitEventIds(resumed, ids -> ids.size() == remaining || isCompleted(resumed)));
+        }
+
+        assertEquals(events, received.size());
+        for (int i = 0; i < events; i++) {
+            assertEquals((i + 1) + ":tx-" + (i + 1), received.get(i));
+        }
+    }
+
+    private MvcResult subscribe(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static boolean isCompleted(MvcResult result) {
+        // The emitter completing hands its result to the async manager.
+        return WebAsyncUtils.getAsyncManager(result.getRequest()).hasConcurrentResult();
+    }
+
+    private static List<String> awaitEventIds(MvcResult result, Predicate<List<String>> done) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<String> ids = eventIds(result.getResponse());
+            if (done.test(ids)) {
+                return ids;
+            }
+            Thread.sleep(10);
+        }
+        fail("Timed out waiting for events, received " + eventIds(result.getResponse()).size());
+        return List.of();
+    }
+
+    private static List<String> eventIds(MockHttpServletResponse response) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            if (line.startsWith("id:")) {
+                ids.add(line.substring(3));
+            }
+        }
+        return ids;
+    }
+
+    private static TrustRecord trustRecord(String id, String credentialType, String identifier) {
+        TrustRecord record = new TrustRecord();
+        record.setId(id);
+        record.setCredentialType(credentialType);
+        record.setIdentifier(identifier);
+        return record;
+    }
+
+    private static GovernanceRecord governanceRecord(String identifier) {
+        GovernanceRecord record = new GovernanceRecord();
+        record.setIdentifier(identifier);
+        return record;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.trustregistry.feed;
+
+import com.example.trustregistry.model.TrustRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChangeFeedTest {
+
+    private ChangeFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        if (feed != null) {
+            feed.shutdown();
+        }
+    }
+
+    @Test
+    void testCursorParsesEventIds() {
+        assertNotNull(ChangeFeed.Cursor.afterEvent("12:tx-1"));
+        assertNotNull(ChangeFeed.Cursor.afterEvent("0:a:b"));
+        assertNull(ChangeFeed.Cursor.afterEvent("12"));
+        assertNull(ChangeFeed.Cursor.afterEvent(":tx-1"));
+        assertNull(ChangeFeed.Cursor.afterEvent("12:"));
+        assertNull(ChangeFeed.Cursor.afterEvent("-1:tx-1"));
+        assertNull(ChangeFeed.Cursor.afterEvent("abc:tx-1"));
+    }
+
+    @Test
+    void testPositionBeforeStartIsGone() {
+        feed = newFeed(100, 10);
+        assertFalse(feed.isStarted());
+        assertTrue(feed.subscribe(null, null, ChangeFeed.Cursor.fromBlock(5)).isGone());
+
+        feed.streamStarted(10);
+
+        assertTrue(feed.isStarted());
+        assertTrue(feed.subscribe(null, null, ChangeFeed.Cursor.fromBlock(9)).isGone());
+        assertNotNull(feed.subscribe(null, null, ChangeFeed.Cursor.fromBlock(10)).getEmitter());
+        assertNotNull(feed.subscribe(null, null, null).getEmitter());
+    }
+
+    @Test
+    void testEvictedPositionIsGone() {
+        feed = newFeed(3, 10);
+        feed.streamStarted(1);
+        for (int block = 1; block <= 5; block++) {
+            feed.publishTrustRecord(block, "tx-" + block, "CreateTrustRecord", record("tr-" + block));
+        }
+
+        // Blocks 1 and 2 fell out of the history; a retained event still resumes even if its block is incomplete.
+        assertTrue(feed.subscribe(null, null, ChangeFeed.Cursor.afterEvent("2:tx-2")).isGone());
+        assertTrue(feed.subscribe(null, null, ChangeFeed.Cursor.fromBlock(2)).isGone());
+        assertFalse(feed.subscribe(null, null, ChangeFeed.Cursor.afterEvent("3:tx-3")).isGone());
+        assertFalse(feed.subscribe(null, null, ChangeFeed.Cursor.fromBlock(3)).isGone());
+    }
+
+    @Test
+    void testUnknownTransactionReplaysItsBlock() {
+        feed = newFeed(100, 10);
+        feed.streamStarted(1);
+        feed.publishTrustRecord(2, "tx-2", "CreateTrustRecord", record("tr-2"));
+
+        // Not in the history, but block 2 is complete, so the subscriber gets the whole block again.
+        ChangeFeed.Subscription subscription = feed.subscribe(null, null, ChangeFeed.Cursor.afterEvent("2:tx-unknown"));
+        assertFalse(subscription.isGone());
+        assertNotNull(subscription.getEmitter());
+    }
+
+    @Test
+    void testSubscribeRefusesBeyondMaxSubscribers() {
+        feed = newFeed(100, 2);
+        assertFalse(feed.subscribe(null, null, null).isFull());
+        assertFalse(feed.subscribe("KYC", null, null).isFull());
+
+        ChangeFeed.Subscription third = feed.subscribe(null, null, null);
+        assertTrue(third.isFull());
+        assertNull(third.getEmitter());
+    }
+
+    static ChangeFeed newFeed(int historySize, int maxSubscribers) {
+        ChangeFeed feed = new ChangeFeed(new ObjectMapper());
+        ReflectionTestUtils.setField(feed, "enabled", true);
+        ReflectionTestUtils.setField(feed, "historySize", historySize);
+        ReflectionTestUtils.setField(feed, "subscriberBuffer", 1000);
+        ReflectionTestUtils.setField(feed, "maxSubscribers", maxSubscribers);
+        ReflectionTestUtils.setField(feed, "dispatchThreads", 4);
+        ReflectionTestUtils.setField(feed, "heartbeatMs", 15_000L);
+        ReflectionTestUtils.setField(feed, "timeoutMs", 60_000L);
+        feed.init();
+        return feed;
+    }
+
+    static TrustRecord record(String id) {
+        TrustRecord record = new TrustRecord();
+        record.setId(id);
+        record.setIdentifier("did:example:" + id);
+        record.setCredentialType("KYC");
+        return record;
+    }
+}
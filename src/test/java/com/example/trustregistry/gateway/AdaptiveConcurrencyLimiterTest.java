@@ -0,0 +1,86 @@
+package com.example.trustregistry.gateway;
+
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void testRejectsOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1000, 0.5);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(FAST, null);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void testGrowsOnlyWhileSaturated() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 1000, 0.5);
+        // One call at a time never uses half of the limit, so it says nothing about capacity.
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, null);
+        }
+        assertEquals(4, limiter.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            while (limiter.tryAcquire()) {
+                // fill every slot
+            }
+            for (int inFlight = limiter.getInFlight(); inFlight > 0; inFlight--) {
+                limiter.release(FAST, null);
+            }
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void testBacksOffOncePerIntervalOnSlowOrOverloadedCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, 1000, 0.5);
+        limiter.tryAcquire();
+        limiter.release(SLOW, null);
+        assertEquals(4, limiter.getLimit());
+
+        // Within the same interval further signals count as the same burst.
+        limiter.tryAcquire();
+        limiter.release(FAST, Status.Code.UNAVAILABLE);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void testNeverDropsBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 3, 10, 0, 0.1);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, Status.Code.RESOURCE_EXHAUSTED);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void testApplicationErrorsDoNotShrinkTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 0, 0.5);
+        limiter.tryAcquire();
+        limiter.release(0, Status.Code.UNKNOWN);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 0, 10, 100, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 5, 4, 100, 0.5));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.trustregistry.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("peer0:7051", 3, 60_000);
+        assertFalse(breaker.onFailure());
+        assertFalse(breaker.onFailure());
+        breaker.onSuccess();
+        assertFalse(breaker.onFailure());
+        assertFalse(breaker.onFailure());
+        assertTrue(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isClosed());
+    }
+
+    @Test
+    void testNoProbeWhileOpenOrClosed() {
+        CircuitBreaker breaker = new CircuitBreaker("peer0:7051", 1, 60_000);
+        assertFalse(breaker.tryAcquireProbe(System.currentTimeMillis()));
+        breaker.onFailure();
+        assertFalse(breaker.tryAcquireProbe(System.currentTimeMillis()));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testSingleProbeClosesOnSuccess() {
+        CircuitBreaker breaker = new CircuitBreaker("peer0:7051", 1, 60_000);
+        breaker.onFailure();
+        long afterOpen = breaker.getOpenUntilMillis();
+
+        assertTrue(breaker.tryAcquireProbe(afterOpen));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquireProbe(afterOpen));
+
+        assertTrue(breaker.onSuccess());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testFailedProbeReopens() {
+        CircuitBreaker breaker = new CircuitBreaker("peer0:7051", 5, 60_000);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        assertTrue(breaker.tryAcquireProbe(breaker.getOpenUntilMillis()));
+        // A single failure in half-open is enough, whatever the threshold.
+        assertTrue(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquireProbe(System.currentTimeMillis()));
+    }
+
+    @Test
+    void testAbandonedProbeFreesTheSlot() {
+        CircuitBreaker breaker = new CircuitBreaker("peer0:7051", 1, 60_000);
+        breaker.onFailure();
+        long afterOpen = breaker.getOpenUntilMillis();
+        assertTrue(breaker.tryAcquireProbe(afterOpen));
+        breaker.onAbandoned();
+        assertTrue(breaker.tryAcquireProbe(afterOpen));
+    }
+}
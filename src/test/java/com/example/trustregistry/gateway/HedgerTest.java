@@ -0,0 +1,189 @@
+package com.example.trustregistry.gateway;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HedgerTest {
+
+    private static final String KEY = "ReadTrustRecord";
+
+    private final ExecutorService hedgeExecutor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    @Test
+    void testNoHedgeWithoutEnoughSamples() throws Exception {
+        Hedger hedger = new Hedger(hedgeExecutor, 0.95, 1, 256, 1000);
+        assertEquals(-1, hedger.hedgeDelayNanos(KEY));
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        assertEquals("v", hedger.call(KEY, hedge -> {
+            ranOn.set(Thread.currentThread());
+            return "v";
+        }, () -> { }));
+        assertSame(Thread.currentThread(), ranOn.get());
+    }
+
+    @Test
+    void testDelayFollowsPercentileWithMinimum() {
+        Hedger hedger = new Hedger(hedgeExecutor, 0.5, 5, 64, 1000);
+        warmUp(hedger, TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), hedger.hedgeDelayNanos(KEY));
+
+        Hedger fast = new Hedger(hedgeExecutor, 0.5, 5, 64, 1000);
+        warmUp(fast, TimeUnit.MICROSECONDS.toNanos(10));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), fast.hedgeDelayNanos(KEY));
+    }
+
+    @Test
+    void testFastFirstAttemptRunsOnCallerWithoutHedge() throws Exception {
+        Hedger hedger = new Hedger(hedgeExecutor, 0.5, 50, 64, 1000);
+        warmUp(hedger, TimeUnit.MILLISECONDS.toNanos(50));
+        AtomicInteger hedges = new AtomicInteger();
+        AtomicReference<Thread> firstThread = new AtomicReference<>();
+
+        String result = hedger.call(KEY, hedge -> {
+            if (!hedge) {
+                firstThread.set(Thread.currentThread());
+            }
+            return hedge ? "hedge" : "first";
+        }, hedges::incrementAndGet);
+
+        assertEquals("first", result);
+        assertSame(Thread.currentThread(), firstThread.get());
+        Thread.sleep(100);
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    void testHedgeWinsAndInterruptsTheCallerAttempt() throws Exception {
+        Hedger hedger = new Hedger(hedgeExecutor, 0.5, 1, 64, 5000);
+        warmUp(hedger, TimeUnit.MILLISECONDS.toNanos(5));
+        AtomicInteger hedges = new AtomicInteger();
+        AtomicReference<Boolean> firstInterrupted = new AtomicReference<>(false);
+
+        long start = System.nanoTime();
+        String result = hedger.call(KEY, hedge -> {
+            if (hedge) {
+                return "hedge";
+            }
+            try {
+                Thread.sleep(5000);
+                return "first";
+            } catch (InterruptedException e) {
+                firstInterrupted.set(true);
+                throw e;
+            }
+        }, hedges::incrementAndGet);
+
+        assertEquals("hedge", result);
+        assertEquals(1, hedges.get());
+        assertTrue(firstInterrupted.get());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void testFailedFirstAttemptWaitsForHedge() throws Exception {
+        Hedger hedger = new Hedger(hedgeExecutor, 0.5, 1, 64, 5000);
+        warmUp(hedger, TimeUnit.MILLISECONDS.toNanos(5));
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+
+        String result = hedger.call(KEY, hedge -> {
+            if (hedge) {
+                hedgeStarted.countDown();
+                Thread.sleep(50);
+                return "hedge";
+            }
+            assertTrue(hedgeStarted.await(5, TimeUnit.SECONDS));
+            throw new IllegalStateException("first failed");
+        }, () -> { });
+
+        assertEquals("hedge", result);
+    }
+
+    @Test
+    void testFailedFirstAttemptWithoutHedgeFailsImmediately() {
+        Hedger hedger = new Hedger(hedgeExecutor, 0.5, 1000, 64, 5000);
+        warmUp(hedger, TimeUnit.MILLISECONDS.toNanos(5));
+        IllegalStateException failure = new IllegalStateException("first failed");
+
+        long start = System.nanoTime();
+        Exception thrown = assertThrows(Exception.class, () -> hedger.call(KEY, hedge -> {
+            throw failure;
+        }, () -> { }));
+        assertSame(failure, thrown);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    void testHedgeWaitIsBoundedByDeadline() {
+        Hedger hedger = new Hedger(hedgeExecutor, 0.5, 1, 64, 200);
+        warmUp(hedger, TimeUnit.MILLISECONDS.toNanos(5));
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("first failed");
+
+        long start = System.nanoTime();
+        Exception thrown = assertThrows(Exception.class, () -> hedger.call(KEY, hedge -> {
+            if (hedge) {
+                hedgeStarted.countDown();
+                Thread.sleep(10_000);
+                return "hedge";
+            }
+            assertTrue(hedgeStarted.await(5, TimeUnit.SECONDS));
+            throw failure;
+        }, () -> { }));
+        assertSame(failure, thrown);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void testCallersDoNotDeadlockWhenHedgePoolIsSaturated() throws Exception {
+        // One hedge thread for many slow callers: hedges that cannot run are skipped, callers still finish.
+        ThreadPoolExecutor tinyPool = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new SynchronousQueue<>());
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            Hedger hedger = new Hedger(tinyPool, 0.5, 1, 64, 1000);
+            warmUp(hedger, TimeUnit.MILLISECONDS.toNanos(1));
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> hedger.call(KEY, hedge -> {
+                    Thread.sleep(hedge ? 200 : 50);
+                    return hedge ? "hedge" : "first";
+                }, () -> { })));
+            }
+            for (Future<String> result : results) {
+                assertEquals("first", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+            tinyPool.shutdownNow();
+        }
+    }
+
+    private static void warmUp(Hedger hedger, long latencyNanos) {
+        for (int i = 0; i < 64; i++) {
+            hedger.record(KEY, latencyNanos);
+        }
+    }
+}
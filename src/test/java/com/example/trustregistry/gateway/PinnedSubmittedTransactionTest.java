@@ -0,0 +1,98 @@
+package com.example.trustregistry.gateway;
+
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import org.hyperledger.fabric.client.CommitStatusException;
+import org.hyperledger.fabric.client.Gateway;
+import org.hyperledger.fabric.client.Status;
+import org.hyperledger.fabric.client.SubmittedTransaction;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PinnedSubmittedTransactionTest {
+
+    @Test
+    void testPinnedUntilStatusRead() throws Exception {
+        PeerConnection connection = newConnection();
+        SubmittedTransaction submitted = mock(SubmittedTransaction.class);
+        Status status = mock(Status.class);
+        when(submitted.getStatus(ArgumentMatchers.<UnaryOperator<CallOptions>>any())).thenReturn(status);
+
+        PinnedSubmittedTransaction pinned = new PinnedSubmittedTransaction(submitted, connection);
+        assertEquals(1, connection.getPinned());
+
+        assertSame(status, pinned.getStatus());
+        assertEquals(0, connection.getPinned());
+    }
+
+    @Test
+    void testUnpinnedWhenStatusReadFails() throws Exception {
+        PeerConnection connection = newConnection();
+        SubmittedTransaction submitted = mock(SubmittedTransaction.class);
+        when(submitted.getStatus(ArgumentMatchers.<UnaryOperator<CallOptions>>any()))
+                .thenThrow(mock(CommitStatusException.class));
+
+        PinnedSubmittedTransaction pinned = new PinnedSubmittedTransaction(submitted, connection);
+
+        assertThrows(CommitStatusException.class, pinned::getStatus);
+        assertEquals(0, connection.getPinned());
+    }
+
+    @Test
+    void testUnpinIsIdempotent() {
+        PeerConnection connection = newConnection();
+        PinnedSubmittedTransaction pinned = new PinnedSubmittedTransaction(mock(SubmittedTransaction.class), connection);
+
+        pinned.unpin();
+        pinned.unpin();
+
+        assertEquals(0, connection.getPinned());
+    }
+
+    @Test
+    void testDrainWaitsForPinnedConnection() throws Exception {
+        ManagedChannel channel = mock(ManagedChannel.class);
+        when(channel.shutdownNow()).thenReturn(channel);
+        PeerConnection connection = new PeerConnection("peer0:7051", channel, mock(Gateway.class), null, null,
+                new CircuitBreaker("peer0:7051", 3, 60_000));
+        PeerConnectionPool pool = new PeerConnectionPool(List.of(connection));
+        PinnedSubmittedTransaction pinned = new PinnedSubmittedTransaction(mock(SubmittedTransaction.class), connection);
+
+        CountDownLatch closed = new CountDownLatch(1);
+        Thread drain = new Thread(() -> {
+            try {
+                pool.drainAndClose(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closed.countDown();
+        });
+        drain.start();
+
+        assertFalse(closed.await(200, TimeUnit.MILLISECONDS));
+        verify(channel, never()).shutdownNow();
+
+        pinned.unpin();
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+        verify(channel).shutdownNow();
+    }
+
+    private static PeerConnection newConnection() {
+        return new PeerConnection("peer0:7051", null, null, null, null, new CircuitBreaker("peer0:7051", 3, 60_000));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.trustregistry.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void testConcurrentCallersShareOneCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger collapsed = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = callers.submit(() -> singleFlight.execute("k", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "v";
+            }, collapsed::incrementAndGet));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower = callers.submit(() -> singleFlight.execute("k", () -> {
+                calls.incrementAndGet();
+                return "other";
+            }, collapsed::incrementAndGet));
+            while (collapsed.get() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals("v", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("v", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(0, singleFlight.inFlightCount());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsSharedAndNotKept() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger collapsed = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("peer down");
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = callers.submit(() -> singleFlight.execute("k", () -> {
+                started.countDown();
+                release.await();
+                throw failure;
+            }, collapsed::incrementAndGet));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = callers.submit(() -> singleFlight.execute("k", () -> "unused", collapsed::incrementAndGet));
+            while (collapsed.get() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+            assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+        } finally {
+            callers.shutdownNow();
+        }
+        // The next caller starts a fresh call instead of seeing the old failure.
+        assertEquals("fresh", singleFlight.execute("k", () -> "fresh", () -> { }));
+    }
+
+    @Test
+    void testDifferentKeysDoNotCollapse() throws Exception {
+        AtomicInteger collapsed = new AtomicInteger();
+        // "b" starts while "a" is still in flight.
+        String result = singleFlight.execute("a",
+                () -> "a" + singleFlight.execute("b", () -> "b", collapsed::incrementAndGet), collapsed::incrementAndGet);
+        assertEquals("ab", result);
+        assertEquals(0, collapsed.get());
+    }
+}
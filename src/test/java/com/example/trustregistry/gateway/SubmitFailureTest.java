@@ -0,0 +1,54 @@
+package com.example.trustregistry.gateway;
+
+import io.grpc.Status;
+import org.hyperledger.fabric.client.CommitStatusException;
+import org.hyperledger.fabric.client.EndorseException;
+import org.hyperledger.fabric.client.SubmitException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SubmitFailureTest {
+
+    @Test
+    void testChaincodeRejectionIsDefinite() {
+        EndorseException endorse = new EndorseException("tx1",
+                Status.ABORTED.withDescription("failed to endorse: chaincode response 500, record exists").asRuntimeException());
+        // FabricGatewayClient rethrows the detail message with the EndorseException attached.
+        SubmitFailure failure = SubmitFailure.of(new Exception("chaincode response 500, record exists", endorse));
+
+        assertEquals(SubmitFailure.REJECTED, failure);
+        assertTrue(failure.isDefinite());
+        assertEquals(SubmitFailure.REJECTED, SubmitFailure.of(new Exception("chaincode response 500, bad input")));
+    }
+
+    @Test
+    void testEndorseTransportErrorsAreNotRejections() {
+        assertEquals(SubmitFailure.UNAVAILABLE, SubmitFailure.of(
+                new Exception("unavailable", new EndorseException("tx1", Status.UNAVAILABLE.asRuntimeException()))));
+        assertEquals(SubmitFailure.TIMED_OUT, SubmitFailure.of(
+                new Exception("deadline", new EndorseException("tx1", Status.DEADLINE_EXCEEDED.asRuntimeException()))));
+        assertEquals(SubmitFailure.FAILED, SubmitFailure.of(
+                new Exception("aborted", new EndorseException("tx1", Status.ABORTED.withDescription("no quorum").asRuntimeException()))));
+    }
+
+    @Test
+    void testFailuresAfterSubmitAreIndeterminate() {
+        assertEquals(SubmitFailure.INDETERMINATE, SubmitFailure.of(new SubmitException("tx1", Status.UNAVAILABLE.asRuntimeException())));
+        assertEquals(SubmitFailure.INDETERMINATE, SubmitFailure.of(
+                new CommitStatusException("tx1", Status.DEADLINE_EXCEEDED.asRuntimeException())));
+        assertEquals(SubmitFailure.INDETERMINATE, SubmitFailure.of(new TimeoutException("commit wait")));
+        assertEquals(SubmitFailure.INDETERMINATE, SubmitFailure.of(new InterruptedException("commit wait")));
+        assertFalse(SubmitFailure.INDETERMINATE.isDefinite());
+    }
+
+    @Test
+    void testOtherFailures() {
+        assertEquals(SubmitFailure.UNAVAILABLE, SubmitFailure.of(new LedgerOverloadedException("submit", "CreateTrustRecord", 4, 1)));
+        assertEquals(SubmitFailure.FAILED, SubmitFailure.of(new IllegalStateException("no connection")));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.trustregistry.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = newStore(100);
+    }
+
+    @Test
+    void testSuccessIsReplayed() {
+        AtomicInteger submits = new AtomicInteger();
+        ResponseEntity<Object> ok = ResponseEntity.ok("created");
+
+        IdempotencyStore.Result first = store.execute("CreateTrustRecord", "key-1", "{}", () -> {
+            submits.incrementAndGet();
+            return ok;
+        });
+        IdempotencyStore.Result retry = store.execute("CreateTrustRecord", "key-1", "{}", () -> {
+            submits.incrementAndGet();
+            return ResponseEntity.ok("again");
+        });
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertSame(ok, retry.getResponse());
+        assertEquals(1, submits.get());
+    }
+
+    @Test
+    void testDifferentPayloadIsMismatched() {
+        store.execute("CreateTrustRecord", "key-1", "{\"id\":\"a\"}", () -> ResponseEntity.ok("created"));
+
+        IdempotencyStore.Result retry = store.execute("CreateTrustRecord", "key-1", "{\"id\":\"b\"}",
+                () -> ResponseEntity.ok("again"));
+
+        assertTrue(retry.isMismatched());
+        assertNull(retry.getResponse());
+    }
+
+    @Test
+    void testKeyIsScopedToOperation() {
+        store.execute("CreateTrustRecord", "key-1", "{}", () -> ResponseEntity.ok("trust"));
+
+        IdempotencyStore.Result other = store.execute("CreateGovernanceRecord", "key-1", "{}",
+                () -> ResponseEntity.ok("governance"));
+
+        assertFalse(other.isReplayed());
+        assertEquals("governance", other.getResponse().getBody());
+    }
+
+    @Test
+    void testDefiniteRejectionsAreReplayed() {
+        for (HttpStatus status : new HttpStatus[]{HttpStatus.BAD_REQUEST, HttpStatus.CONFLICT}) {
+            String key = "key-" + status.value();
+            store.execute("CreateGovernanceRecord", key, "{}", () -> ResponseEntity.status(status).build());
+
+            IdempotencyStore.Result retry = store.execute("CreateGovernanceRecord", key, "{}",
+                    () -> ResponseEntity.ok("created"));
+
+            assertTrue(retry.isReplayed(), status.toString());
+            assertEquals(status, retry.getResponse().getStatusCode());
+        }
+    }
+
+    @Test
+    void testTransportAndServerErrorsAreNotStored() {
+        HttpStatus[] statuses = {HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.BAD_GATEWAY,
+                HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT, HttpStatus.TOO_MANY_REQUESTS};
+        for (HttpStatus status : statuses) {
+            String key = "key-" + status.value();
+            store.execute("CreateTrustRecord", key, "{}", () -> ResponseEntity.status(status).build());
+
+            IdempotencyStore.Result retry = store.execute("CreateTrustRecord", key, "{}",
+                    () -> ResponseEntity.ok("created"));
+
+            assertFalse(retry.isReplayed(), status.toString());
+            assertEquals(HttpStatus.OK, retry.getResponse().getStatusCode());
+        }
+    }
+
+    @Test
+    void testRetryWhileRunningWaitsForFirstCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger submits = new AtomicInteger();
+        CompletableFuture<IdempotencyStore.Result> first = CompletableFuture.supplyAsync(() ->
+                store.execute("CreateTrustRecord", "key-1", "{}", () -> {
+                    submits.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.ok("created");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<IdempotencyStore.Result> retry = CompletableFuture.supplyAsync(() ->
+                store.execute("CreateTrustRecord", "key-1", "{}", () -> {
+                    submits.incrementAndGet();
+                    return ResponseEntity.ok("again");
+                }));
+        assertFalse(retry.isDone());
+        release.countDown();
+
+        assertEquals("created", retry.get(5, TimeUnit.SECONDS).getResponse().getBody());
+        assertTrue(retry.get().isReplayed());
+        assertFalse(first.get(5, TimeUnit.SECONDS).isReplayed());
+        assertEquals(1, submits.get());
+    }
+
+    @Test
+    void testPendingEntryIsNotEvicted() throws Exception {
+        IdempotencyStore small = newStore(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger submits = new AtomicInteger();
+        CompletableFuture<IdempotencyStore.Result> pending = CompletableFuture.supplyAsync(() ->
+                small.execute("CreateTrustRecord", "pending", "{}", () -> {
+                    submits.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.ok("created");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Completed keys beyond the bound force evictions while the first submit is still running.
+        for (int i = 0; i < 10; i++) {
+            small.execute("CreateTrustRecord", "done-" + i, "{}", () -> ResponseEntity.ok("done"));
+        }
+        entries(small).cleanUp();
+        assertTrue(entries(small).asMap().containsKey("CreateTrustRecord\u0000pending"));
+
+        release.countDown();
+        assertFalse(pending.get(5, TimeUnit.SECONDS).isReplayed());
+        assertEquals(1, submits.get());
+    }
+
+    @Test
+    void testValidKeys() {
+        assertTrue(IdempotencyStore.isValidKey("abc-123_~"));
+        assertFalse(IdempotencyStore.isValidKey(""));
+        assertFalse(IdempotencyStore.isValidKey("has space"));
+        assertFalse(IdempotencyStore.isValidKey("x".repeat(129)));
+    }
+
+    private static IdempotencyStore newStore(long maxKeys) {
+        IdempotencyStore store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "maxKeys", maxKeys);
+        ReflectionTestUtils.setField(store, "ttlSeconds", 60L);
+        store.init();
+        return store;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, ?> entries(IdempotencyStore store) {
+        return (Cache<String, ?>) ReflectionTestUtils.getField(store, "entries");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
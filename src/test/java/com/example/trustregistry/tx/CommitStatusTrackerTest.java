@@ -0,0 +1,123 @@
+package com.example.trustregistry.tx;
+
+import com.example.trustregistry.gateway.LedgerOverloadedException;
+import com.example.trustregistry.model.TransactionStatus;
+import io.grpc.CallOptions;
+import org.hyperledger.fabric.client.Status;
+import org.hyperledger.fabric.client.SubmittedTransaction;
+import org.hyperledger.fabric.protos.peer.TxValidationCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CommitStatusTrackerTest {
+
+    private CommitStatusTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new CommitStatusTracker();
+        ReflectionTestUtils.setField(tracker, "maxTracked", 100L);
+        ReflectionTestUtils.setField(tracker, "retentionMinutes", 60L);
+        ReflectionTestUtils.setField(tracker, "statusThreads", 1);
+        ReflectionTestUtils.setField(tracker, "maxPending", 2);
+        ReflectionTestUtils.setField(tracker, "retryAfterSeconds", 3L);
+        tracker.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.shutdown();
+    }
+
+    @Test
+    void testCommittedTransactionIsValid() throws Exception {
+        CountDownLatch committed = new CountDownLatch(1);
+        tracker.reserve("CreateTrustRecord");
+        TransactionStatus status = tracker.track("CreateTrustRecord", transaction("tx-1", new CountDownLatch(0)),
+                committed::countDown);
+
+        assertEquals(CommitStatusTracker.PENDING, status.getStatus());
+        assertTrue(committed.await(5, TimeUnit.SECONDS));
+        assertEquals(CommitStatusTracker.VALID, tracker.getStatus("tx-1").getStatus());
+    }
+
+    @Test
+    void testReserveRefusedWhileBacklogIsFull() throws Exception {
+        CountDownLatch commit = new CountDownLatch(1);
+        AtomicInteger committed = new AtomicInteger();
+        for (String transactionId : new String[]{"tx-1", "tx-2"}) {
+            tracker.reserve("CreateTrustRecord");
+            tracker.track("CreateTrustRecord", transaction(transactionId, commit), committed::incrementAndGet);
+        }
+
+        // One status is being awaited and one is queued behind it; a third submit must not be sent.
+        LedgerOverloadedException e = assertThrows(LedgerOverloadedException.class,
+                () -> tracker.reserve("CreateTrustRecord"));
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(CommitStatusTracker.PENDING, tracker.getStatus("tx-2").getStatus());
+
+        commit.countDown();
+        awaitTrue(() -> committed.get() == 2);
+        awaitTrue(() -> {
+            try {
+                tracker.reserve("CreateTrustRecord");
+                return true;
+            } catch (LedgerOverloadedException overloaded) {
+                return false;
+            }
+        });
+    }
+
+    @Test
+    void testReleaseReturnsUnusedReservation() {
+        assertDoesNotThrow(() -> tracker.reserve("CreateTrustRecord"));
+        assertDoesNotThrow(() -> tracker.reserve("CreateTrustRecord"));
+        assertThrows(LedgerOverloadedException.class, () -> tracker.reserve("CreateTrustRecord"));
+
+        tracker.release();
+
+        assertDoesNotThrow(() -> tracker.reserve("CreateTrustRecord"));
+    }
+
+    private static SubmittedTransaction transaction(String transactionId, CountDownLatch commit) throws Exception {
+        Status status = mock(Status.class);
+        when(status.isSuccessful()).thenReturn(true);
+        when(status.getCode()).thenReturn(TxValidationCode.VALID);
+        when(status.getBlockNumber()).thenReturn(7L);
+        SubmittedTransaction transaction = mock(SubmittedTransaction.class);
+        when(transaction.getTransactionId()).thenReturn(transactionId);
+        when(transaction.getStatus()).thenAnswer(invocation -> {
+            commit.await(5, TimeUnit.SECONDS);
+            return status;
+        });
+        when(transaction.getStatus(ArgumentMatchers.<UnaryOperator<CallOptions>>any())).thenAnswer(invocation -> {
+            commit.await(5, TimeUnit.SECONDS);
+            return status;
+        });
+        return transaction;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 s");
+            Thread.sleep(10);
+        }
+    }
+}
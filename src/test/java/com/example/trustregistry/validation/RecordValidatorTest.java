@@ -0,0 +1,134 @@
+package com.example.trustregistry.validation;
+
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecordValidatorTest {
+
+    private RecordValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = new RecordValidator(new ObjectMapper());
+        ReflectionTestUtils.setField(validator, "enabled", true);
+        ReflectionTestUtils.setField(validator, "trustStatusValues", new String[]{"Active", "Revoked"});
+        ReflectionTestUtils.setField(validator, "governanceStatusValues", new String[]{"Active"});
+        ReflectionTestUtils.setField(validator, "maxFieldLength", 64);
+        ReflectionTestUtils.setField(validator, "maxDidDocumentLength", 256);
+        validator.init();
+    }
+
+    @Test
+    void testValidTrustRecord() {
+        assertTrue(validator.validate(trustRecord("tr-1")).isEmpty());
+    }
+
+    @Test
+    void testNullRecordIsAViolation() {
+        assertEquals(List.of("record must not be null"), validator.validate((TrustRecord) null));
+        assertEquals(List.of("record must not be null"), validator.validate((GovernanceRecord) null));
+
+        ReflectionTestUtils.setField(validator, "enabled", false);
+        assertEquals(List.of("record must not be null"), validator.validate((TrustRecord) null));
+    }
+
+    @Test
+    void testReportsEveryViolationInFieldOrder() {
+        TrustRecord record = trustRecord(null);
+        record.setEntityType("x".repeat(65));
+        record.setStatus("active");
+        record.setStatusDetail("x".repeat(65));
+        record.setValidFromDt("2025-06-01T00:00:00Z");
+        record.setValidUntilDt("2025-01-01T00:00:00Z");
+
+        assertEquals(List.of(
+                "id is required",
+                "entity_type must be at most 64 characters",
+                "status_detail must be at most 64 characters",
+                "valid_until_dt must not be before valid_from_dt"), validator.validate(record));
+    }
+
+    @Test
+    void testOnlyKeysAndStatusAreRequired() {
+        // As sent by locust_loadtest.py and streamlit_api_testing.py.
+        TrustRecord trust = new TrustRecord();
+        trust.setId("tr-1");
+        trust.setIdentifier("did:example:gov");
+        trust.setStatus("Active");
+        assertTrue(validator.validate(trust).isEmpty());
+
+        GovernanceRecord governance = new GovernanceRecord();
+        governance.setId("gr-1");
+        governance.setIdentifier("did:example:gov");
+        governance.setStatus("Active");
+        assertTrue(validator.validate(governance).isEmpty());
+
+        assertEquals(List.of("id is required", "identifier is required", "status is required"),
+                validator.validate(new GovernanceRecord()));
+    }
+
+    @Test
+    void testStatusAndDates() {
+        TrustRecord record = trustRecord("tr-1");
+        record.setStatus("Pending");
+        record.setValidFromDt("2025-01-01");
+        List<String> violations = validator.validate(record);
+        assertEquals(2, violations.size());
+        assertTrue(violations.get(0).startsWith("status must be one of"));
+        assertTrue(violations.get(1).startsWith("valid_from_dt must be an ISO-8601 date-time"));
+    }
+
+    @Test
+    void testDidDocumentMustBeOneJsonObject() {
+        TrustRecord record = trustRecord("tr-1");
+        record.setDidDocument("{\"id\":\"did:example:1\"}");
+        assertTrue(validator.validate(record).isEmpty());
+
+        record.setDidDocument("[1]");
+        assertEquals(List.of("did_document must be a JSON object"), validator.validate(record));
+        record.setDidDocument("{} {}");
+        assertEquals(List.of("did_document has content after the JSON object"), validator.validate(record));
+        record.setDidDocument("{\"id\":");
+        assertTrue(validator.validate(record).get(0).startsWith("did_document is not well-formed JSON"));
+        record.setDidDocument("{\"id\":\"" + "x".repeat(300) + "\"}");
+        assertEquals(List.of("did_document must be at most 256 characters"), validator.validate(record));
+    }
+
+    @Test
+    void testKeysShadowedByReadRoutesAreRejected() {
+        for (String id : List.of("search", "page", "stream", "valid")) {
+            List<String> violations = validator.validate(trustRecord(id));
+            assertEquals(1, violations.size(), id);
+            assertTrue(violations.get(0).startsWith("id must not be one of the reserved names"));
+        }
+        assertTrue(validator.validate(trustRecord("Search")).isEmpty());
+
+        GovernanceRecord governance = new GovernanceRecord();
+        governance.setId("gr-1");
+        governance.setIdentifier("stream");
+        governance.setName("Framework");
+        governance.setStatus("Active");
+        assertTrue(validator.validate(governance).get(0).startsWith("identifier must not be one of the reserved names"));
+        governance.setIdentifier("did:example:gov");
+        assertTrue(validator.validate(governance).isEmpty());
+    }
+
+    private static TrustRecord trustRecord(String id) {
+        TrustRecord record = new TrustRecord();
+        record.setId(id);
+        record.setIdentifier("did:example:" + id);
+        record.setEntityType("Issuer");
+        record.setCredentialType("KYC");
+        record.setStatus("Active");
+        return record;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.TrustRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class CompactTrustRecordTest {
+
+    private static final String DID_DOCUMENT = "{\"@context\":[\"https://www.w3.org/ns/did/v1\","
+            + "\"https://w3id.org/security/suites/ed25519-2020/v1\"],\"id\":\"did:web:issuer.example.com\","
+            + "\"verificationMethod\":[{\"id\":\"did:web:issuer.example.com#key-1\","
+            + "\"type\":\"Ed25519VerificationKey2020\",\"controller\":\"did:web:issuer.example.com\","
+            + "\"publicKeyMultibase\":\"z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK\"}],"
+            + "\"authentication\":[\"did:web:issuer.example.com#key-1\"],"
+            + "\"assertionMethod\":[\"did:web:issuer.example.com#key-1\"]}";
+
+    @Test
+    void testRoundTripWithDeflatedDidDocument() {
+        StringDictionary dictionary = new StringDictionary(1024);
+        TrustRecord record = record("tr-1", DID_DOCUMENT);
+
+        assertEquals(record, CompactTrustRecord.of(record, dictionary, 64).toTrustRecord(dictionary));
+    }
+
+    @Test
+    void testRoundTripWithPlainDidDocument() {
+        StringDictionary dictionary = new StringDictionary(1024);
+        TrustRecord record = record("tr-1", "{\"id\":\"did:key:z6Mk\"}");
+
+        assertEquals(record, CompactTrustRecord.of(record, dictionary, 64).toTrustRecord(dictionary));
+        assertEquals(record, CompactTrustRecord.of(record, dictionary, Integer.MAX_VALUE).toTrustRecord(dictionary));
+    }
+
+    @Test
+    void testRoundTripKeepsTimestampFormsAndNulls() {
+        StringDictionary dictionary = new StringDictionary(1024);
+        TrustRecord record = new TrustRecord("tr-2", "2025-01-01T00:00:00Z", "2025-01-02T03:04:05.600Z",
+                null, null, null, null, null, null, "2025-01-01", "2026-01-01T00:00:00+02:00", "Active", null);
+
+        assertEquals(record, CompactTrustRecord.of(record, dictionary, 64).toTrustRecord(dictionary));
+    }
+
+    @Test
+    void testRoundTripAfterDictionaryIsFull() {
+        StringDictionary dictionary = new StringDictionary(2);
+        dictionary.encode("taken-1");
+        dictionary.encode("taken-2");
+        TrustRecord record = record("tr-3", DID_DOCUMENT);
+
+        assertEquals(record, CompactTrustRecord.of(record, dictionary, 64).toTrustRecord(dictionary));
+    }
+
+    @Test
+    void testStatusDetailDoesNotFillDictionary() {
+        // Room for the five enumerated values of these records and one more.
+        StringDictionary dictionary = new StringDictionary(6);
+        for (int i = 0; i < 100; i++) {
+            TrustRecord record = record("tr-4", DID_DOCUMENT);
+            record.setStatusDetail("Verified by reviewer " + i);
+            assertEquals(record, CompactTrustRecord.of(record, dictionary, 64).toTrustRecord(dictionary));
+        }
+
+        assertNotEquals(StringDictionary.NOT_ENCODED, dictionary.encode("AML"));
+    }
+
+    @Test
+    void testRoundTripFromManyThreads() throws Exception {
+        StringDictionary dictionary = new StringDictionary(1024);
+        int threads = Runtime.getRuntime().availableProcessors() * 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads * 50; i++) {
+                String id = "tr-" + i;
+                results.add(executor.submit(() -> {
+                    TrustRecord record = record(id, DID_DOCUMENT.replace("issuer", id));
+                    assertEquals(record, CompactTrustRecord.of(record, dictionary, 64).toTrustRecord(dictionary));
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TrustRecord record(String id, String didDocument) {
+        return new TrustRecord(id, "2025-01-01T00:00:00Z", "2025-01-02T00:00:00.000Z", null, "did:example:" + id,
+                "Issuer", "KYC", "https://example.com/gf", didDocument,
+                "2025-01-01T00:00:00Z", "2026-01-01T00:00:00Z", "Active", "ok");
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.FabricGatewayClient;
+import com.example.trustregistry.feed.ChangeFeed;
+import com.example.trustregistry.model.TrustRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hyperledger.fabric.client.ChaincodeEvent;
+import org.hyperledger.fabric.client.ChaincodeEventsRequest;
+import org.hyperledger.fabric.client.CloseableIterator;
+import org.hyperledger.fabric.client.Network;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LedgerEventListenerTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventQueue events = new EventQueue();
+    private FabricGatewayClient fabricGatewayClient;
+    private ChaincodeEventsRequest.Builder builder;
+    private LedgerView view;
+    private LedgerEventListener listener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fabricGatewayClient = mock(FabricGatewayClient.class);
+        Network network = mock(Network.class);
+        builder = mock(ChaincodeEventsRequest.Builder.class, RETURNS_SELF);
+        ChaincodeEventsRequest request = mock(ChaincodeEventsRequest.class);
+        when(fabricGatewayClient.getNetwork()).thenReturn(network);
+        when(fabricGatewayClient.getChaincodeName()).thenReturn("trustregistry");
+        when(network.newChaincodeEventsRequest(anyString())).thenReturn(builder);
+        when(builder.startBlock(anyLong())).thenReturn(builder);
+        when(builder.build()).thenReturn(request);
+        when(request.getEvents()).thenReturn(events);
+
+        // As after a snapshot restore at block 5.
+        view = LedgerSnapshotterTest.newView();
+        view.upsertTrustRecord(LedgerSnapshotterTest.trustRecord("tr-1"));
+        view.markBlockProcessed(5);
+        view.markSeeded();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Test
+    void testNotServableUntilBacklogReachesChainHeight() throws Exception {
+        when(fabricGatewayClient.getChainHeight()).thenReturn(11L);
+        start(60_000);
+
+        events.add(event(5, "tx5"));
+        events.add(event(8, "tx8"));
+        awaitTrue(() -> view.getLastBlockNumber() == 8);
+        assertFalse(view.isServable());
+
+        events.add(event(10, "tx10"));
+        awaitTrue(view::isServable);
+    }
+
+    @Test
+    void testQuietStreamEndsCatchUp() throws Exception {
+        // The last blocks carry no events for this chaincode.
+        when(fabricGatewayClient.getChainHeight()).thenReturn(20L);
+        start(300);
+
+        events.add(event(8, "tx8"));
+        awaitTrue(() -> view.getLastBlockNumber() == 8);
+        awaitTrue(view::isServable);
+    }
+
+    @Test
+    void testUnknownChainHeightFallsBackToQuietStream() throws Exception {
+        when(fabricGatewayClient.getChainHeight()).thenThrow(new IllegalStateException("qscc denied"));
+        start(300);
+        awaitTrue(view::isServable);
+    }
+
+    @Test
+    void testViewAtChainHeightIsServableImmediately() throws Exception {
+        when(fabricGatewayClient.getChainHeight()).thenReturn(6L);
+        start(60_000);
+        awaitTrue(view::isServable);
+    }
+
+    @Test
+    void testSeededViewResumesFromChainHeightAfterDisconnect() throws Exception {
+        view = LedgerSnapshotterTest.newView();
+        when(fabricGatewayClient.evaluateTransaction(anyString())).thenReturn("[]");
+        when(fabricGatewayClient.getChainHeight()).thenReturn(11L);
+        start(60_000, 10);
+        awaitTrue(view::isServable);
+        assertEquals(10, view.getLastBlockNumber());
+
+        // Blocks 11 and 12 commit while the stream is down; the reconnect must replay them, not start after them.
+        when(fabricGatewayClient.getChainHeight()).thenReturn(13L);
+        events.end();
+        // The view stays servable within its staleness bound, so watch the catch-up gate itself.
+        awaitTrue(() -> (boolean) ReflectionTestUtils.getField(listener, "catchingUp"));
+        verify(builder).startBlock(10L);
+
+        events.add(event(12, "tx12"));
+        awaitTrue(() -> !(boolean) ReflectionTestUtils.getField(listener, "catchingUp"));
+        assertEquals(12, view.getLastBlockNumber());
+        verify(fabricGatewayClient, times(2)).evaluateTransaction(anyString());
+    }
+
+    @Test
+    void testViewSeededWithoutChainHeightIsSeededAgainOnReconnect() throws Exception {
+        view = LedgerSnapshotterTest.newView();
+        when(fabricGatewayClient.evaluateTransaction(anyString())).thenReturn("[]");
+        when(fabricGatewayClient.getChainHeight()).thenThrow(new IllegalStateException("qscc denied"));
+        start(60_000, 10);
+        awaitTrue(view::isServable);
+
+        events.end();
+        // One GetAllTrustRecords and one GetAllGovernanceRecords per seed.
+        verify(fabricGatewayClient, timeout(5000).times(4)).evaluateTransaction(anyString());
+        verify(builder, never()).startBlock(anyLong());
+    }
+
+    private void start(long catchUpIdleMs) {
+        start(catchUpIdleMs, 60_000);
+    }
+
+    private void start(long catchUpIdleMs, long retryBackoffMs) {
+        listener = new LedgerEventListener(fabricGatewayClient, view, objectMapper, mock(ChangeFeed.class));
+        ReflectionTestUtils.setField(listener, "enabled", true);
+        ReflectionTestUtils.setField(listener, "checkpointFile", directory.resolve("checkpoint").toString());
+        ReflectionTestUtils.setField(listener, "retryBackoffMs", retryBackoffMs);
+        ReflectionTestUtils.setField(listener, "catchUpIdleMs", catchUpIdleMs);
+        listener.start();
+    }
+
+    private ChaincodeEvent event(long blockNumber, String transactionId) throws Exception {
+        TrustRecord record = LedgerSnapshotterTest.trustRecord("tr-" + transactionId);
+        ChaincodeEvent event = mock(ChaincodeEvent.class);
+        when(event.getBlockNumber()).thenReturn(blockNumber);
+        when(event.getTransactionId()).thenReturn(transactionId);
+        when(event.getEventName()).thenReturn("CreateTrustRecord");
+        when(event.getPayload()).thenReturn(objectMapper.writeValueAsBytes(record));
+        when(event.getChaincodeName()).thenReturn("trustregistry");
+        return event;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 s");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * An event stream that blocks for the next event, like the peer's once it has sent the backlog.
+     */
+    private static final class EventQueue implements CloseableIterator<ChaincodeEvent> {
+        private static final ChaincodeEvent END = mock(ChaincodeEvent.class);
+
+        private final BlockingQueue<ChaincodeEvent> queue = new LinkedBlockingQueue<>();
+        private ChaincodeEvent next;
+
+        void add(ChaincodeEvent event) {
+            queue.add(event);
+        }
+
+        /** Ends the stream as a dropped connection would; the listener reconnects to this same queue. */
+        void end() {
+            queue.add(END);
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                next = queue.take();
+                return next != END;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public ChaincodeEvent next() {
+            return next;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.GovernanceRecord;
+import com.example.trustregistry.model.TrustRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LedgerSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndRestoreRoundTrip() throws Exception {
+        Path file = directory.resolve("view.snapshot");
+        LedgerView source = newView();
+        TrustRecord withNulls = new TrustRecord("tr-2", null, null, null, "did:example:2", "Verifier", "AML",
+                null, null, null, null, "Revoked", null);
+        source.upsertTrustRecord(trustRecord("tr-1"));
+        source.upsertTrustRecord(withNulls);
+        source.upsertGovernanceRecord(new GovernanceRecord("gr-1", "2025-01-01T00:00:00Z", null, null,
+                "did:example:gov", "Framework é", "Active"));
+        source.markSeeded();
+        source.markBlockProcessed(42);
+        newSnapshotter(source, file).write();
+
+        LedgerView restored = newView();
+        newSnapshotter(restored, file).restore();
+
+        assertTrue(restored.isSeeded());
+        assertEquals(42, restored.getLastBlockNumber());
+        assertEquals(trustRecord("tr-1"), restored.getTrustRecord("tr-1"));
+        assertEquals(withNulls, restored.getTrustRecord("tr-2"));
+        assertEquals("Framework é", restored.getGovernanceRecord("did:example:gov").getName());
+        assertEquals(2, restored.trustRecordCount());
+        assertEquals(1, restored.governanceRecordCount());
+        // Restoring alone does not make the view servable: the listener still has to catch up.
+        assertFalse(restored.isServable());
+    }
+
+    @Test
+    void testCorruptSnapshotIsIgnored() throws Exception {
+        Path file = directory.resolve("view.snapshot");
+        LedgerView source = newView();
+        source.upsertTrustRecord(trustRecord("tr-1"));
+        source.markSeeded();
+        source.markBlockProcessed(7);
+        newSnapshotter(source, file).write();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long position = raf.length() / 2;
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+        LedgerView restored = newView();
+        newSnapshotter(restored, file).restore();
+
+        assertFalse(restored.isSeeded());
+        assertEquals(-1, restored.getLastBlockNumber());
+        assertNull(restored.getTrustRecord("tr-1"));
+    }
+
+    @Test
+    void testTruncatedOrForeignFileIsIgnored() throws Exception {
+        Path file = directory.resolve("view.snapshot");
+        Files.write(file, new byte[]{1, 2, 3});
+        LedgerView restored = newView();
+        newSnapshotter(restored, file).restore();
+        assertFalse(restored.isSeeded());
+
+        Files.write(file, "not a snapshot file at all, just text".getBytes());
+        newSnapshotter(restored, file).restore();
+        assertFalse(restored.isSeeded());
+    }
+
+    @Test
+    void testMissingSnapshotLeavesViewUnseeded() {
+        LedgerView restored = newView();
+        newSnapshotter(restored, directory.resolve("absent.snapshot")).restore();
+        assertFalse(restored.isSeeded());
+    }
+
+    @Test
+    void testNothingWrittenBeforeTheViewHasABlock() throws Exception {
+        Path file = directory.resolve("view.snapshot");
+        LedgerView view = newView();
+        view.upsertTrustRecord(trustRecord("tr-1"));
+        view.markSeeded();
+        newSnapshotter(view, file).write();
+        assertFalse(Files.exists(file));
+    }
+
+    static LedgerView newView() {
+        LedgerView view = new LedgerView();
+        ReflectionTestUtils.setField(view, "maxStalenessMs", 5000L);
+        ReflectionTestUtils.setField(view, "deflateMinBytes", 64);
+        return view;
+    }
+
+    private static LedgerSnapshotter newSnapshotter(LedgerView view, Path file) {
+        LedgerSnapshotter snapshotter = new LedgerSnapshotter(view);
+        ReflectionTestUtils.setField(snapshotter, "snapshotFile", file.toString());
+        return snapshotter;
+    }
+
+    static TrustRecord trustRecord(String id) {
+        return new TrustRecord(id, "2025-01-01T00:00:00Z", "2025-01-02T00:00:00.000Z", null, "did:example:" + id,
+                "Issuer", "KYC", "https://example.com/gf", "{\"id\":\"did:example:" + id + "\",\"verificationMethod\":[]}",
+                "2025-01-01T00:00:00Z", "2026-01-01T00:00:00Z", "Active", "ok");
+    }
+}
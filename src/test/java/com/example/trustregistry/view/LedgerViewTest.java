@@ -0,0 +1,39 @@
+package com.example.trustregistry.view;
+
+import org.junit.jupiter.api.Test;
+
+import static com.example.trustregistry.view.LedgerSnapshotterTest.newView;
+import static com.example.trustregistry.view.LedgerSnapshotterTest.trustRecord;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class LedgerViewTest {
+
+    @Test
+    void testEtagIsStableForSameResource() {
+        LedgerView view = newView();
+        view.upsertTrustRecord(trustRecord("tr-1"));
+
+        assertEquals(view.etag("GetAllTrustRecords"), view.etag("GetAllTrustRecords"));
+    }
+
+    @Test
+    void testEtagDiffersPerResource() {
+        LedgerView view = newView();
+        view.upsertTrustRecord(trustRecord("tr-1"));
+
+        assertNotEquals(view.etag("GetTrustRecordsByCredentialType\u0000=KYC"),
+                view.etag("GetTrustRecordsByCredentialType\u0000=AML"));
+        assertNotEquals(view.etag("GetAllTrustRecords"), view.etag("GetAllGovernanceRecords"));
+    }
+
+    @Test
+    void testEtagChangesOnWrite() {
+        LedgerView view = newView();
+        String before = view.etag("GetAllTrustRecords");
+
+        view.upsertTrustRecord(trustRecord("tr-1"));
+
+        assertNotEquals(before, view.etag("GetAllTrustRecords"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.trustregistry.view;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class StringDictionaryTest {
+
+    @Test
+    void testEncodesEachValueOnce() {
+        StringDictionary dictionary = new StringDictionary(16);
+        int kyc = dictionary.encode("KYC");
+        int aml = dictionary.encode("AML");
+
+        assertEquals(kyc, dictionary.encode(new String("KYC")));
+        assertEquals("KYC", dictionary.decode(kyc));
+        assertEquals("AML", dictionary.decode(aml));
+    }
+
+    @Test
+    void testNullHasItsOwnCode() {
+        StringDictionary dictionary = new StringDictionary(16);
+        assertEquals(StringDictionary.NULL_CODE, dictionary.encode(null));
+        assertNull(dictionary.decode(StringDictionary.NULL_CODE));
+    }
+
+    @Test
+    void testStopsTakingValuesAtMaxSize() {
+        StringDictionary dictionary = new StringDictionary(100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, dictionary.encode("value-" + i));
+        }
+
+        assertEquals(StringDictionary.NOT_ENCODED, dictionary.encode("one-too-many"));
+        // Values taken before the limit keep their codes, including across the array growth.
+        assertEquals(99, dictionary.encode("value-99"));
+        assertEquals("value-70", dictionary.decode(70));
+        assertEquals(StringDictionary.NULL_CODE, dictionary.encode(null));
+    }
+}
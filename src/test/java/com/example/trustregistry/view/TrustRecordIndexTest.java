@@ -0,0 +1,87 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.TrustRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrustRecordIndexTest {
+
+    private final TrustRecordIndex index = new TrustRecordIndex();
+
+    @Test
+    void testSingleFieldLookup() {
+        index.add(record("tr-1", "KYC", "ISSUER", "ACTIVE"));
+        index.add(record("tr-2", "KYC", "VERIFIER", "ACTIVE"));
+        index.add(record("tr-3", "AML", "ISSUER", "REVOKED"));
+
+        assertEquals(Set.of("tr-1", "tr-2"), index.lookup(criteria(TrustRecordField.CREDENTIAL_TYPE, "KYC")));
+        assertEquals(Set.of("tr-3"), index.lookup(criteria(TrustRecordField.STATUS, "REVOKED")));
+        assertTrue(index.lookup(criteria(TrustRecordField.CREDENTIAL_TYPE, "NONE")).isEmpty());
+    }
+
+    @Test
+    void testMultiFieldLookupIntersects() {
+        index.add(record("tr-1", "KYC", "ISSUER", "ACTIVE"));
+        index.add(record("tr-2", "KYC", "VERIFIER", "ACTIVE"));
+        index.add(record("tr-3", "AML", "ISSUER", "ACTIVE"));
+
+        Map<TrustRecordField, String> criteria = criteria(TrustRecordField.CREDENTIAL_TYPE, "KYC");
+        criteria.put(TrustRecordField.ENTITY_TYPE, "ISSUER");
+        criteria.put(TrustRecordField.STATUS, "ACTIVE");
+        assertEquals(Set.of("tr-1"), index.lookup(criteria));
+
+        criteria.put(TrustRecordField.IDENTIFIER, "unknown");
+        assertTrue(index.lookup(criteria).isEmpty());
+    }
+
+    @Test
+    void testLookupResultIsACopy() {
+        index.add(record("tr-1", "KYC", "ISSUER", "ACTIVE"));
+        Set<String> ids = index.lookup(criteria(TrustRecordField.CREDENTIAL_TYPE, "KYC"));
+        ids.clear();
+        assertEquals(Set.of("tr-1"), index.lookup(criteria(TrustRecordField.CREDENTIAL_TYPE, "KYC")));
+    }
+
+    @Test
+    void testRemoveDropsPostingsOfTheOldVersion() {
+        TrustRecord active = record("tr-1", "KYC", "ISSUER", "ACTIVE");
+        index.add(active);
+        // An update is applied as remove of the previous version plus add of the new one.
+        index.remove(active);
+        index.add(record("tr-1", "KYC", "ISSUER", "REVOKED"));
+
+        assertTrue(index.lookup(criteria(TrustRecordField.STATUS, "ACTIVE")).isEmpty());
+        assertEquals(Set.of("tr-1"), index.lookup(criteria(TrustRecordField.STATUS, "REVOKED")));
+        assertEquals(Set.of("tr-1"), index.lookup(criteria(TrustRecordField.CREDENTIAL_TYPE, "KYC")));
+    }
+
+    @Test
+    void testNullFieldsAreNotIndexed() {
+        index.add(record("tr-1", null, "ISSUER", null));
+        assertEquals(Set.of("tr-1"), index.lookup(criteria(TrustRecordField.ENTITY_TYPE, "ISSUER")));
+        index.remove(record("tr-1", null, "ISSUER", null));
+        assertTrue(index.lookup(criteria(TrustRecordField.ENTITY_TYPE, "ISSUER")).isEmpty());
+    }
+
+    private static Map<TrustRecordField, String> criteria(TrustRecordField field, String value) {
+        Map<TrustRecordField, String> criteria = new EnumMap<>(TrustRecordField.class);
+        criteria.put(field, value);
+        return criteria;
+    }
+
+    private static TrustRecord record(String id, String credentialType, String entityType, String status) {
+        TrustRecord record = new TrustRecord();
+        record.setId(id);
+        record.setIdentifier("did:example:" + id);
+        record.setCredentialType(credentialType);
+        record.setEntityType(entityType);
+        record.setStatus(status);
+        return record;
+    }
+}
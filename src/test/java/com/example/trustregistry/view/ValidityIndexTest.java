@@ -0,0 +1,147 @@
+package com.example.trustregistry.view;
+
+import com.example.trustregistry.model.TrustRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidityIndexTest {
+
+    private static final long DAY = 86_400_000L;
+    private static final long BASE = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final String[] TYPES = {"KYC", "AML", "KYB"};
+
+    @Test
+    void testQueriesSeeWritesBeforeRebuild() {
+        Queue<Runnable> rebuilds = new ArrayDeque<>();
+        ValidityIndex index = new ValidityIndex(rebuilds::add);
+
+        index.add(record("tr-1", "KYC", 0, 10));
+        index.add(record("tr-2", "AML", 5, 20));
+
+        // Nothing has been rebuilt yet, so both answers come from the delta.
+        assertEquals(Set.of("tr-1", "tr-2"), new HashSet<>(index.validAt(BASE + 7 * DAY, null)));
+        assertEquals(List.of("tr-2"), index.validAt(BASE + 7 * DAY, "AML"));
+        assertEquals(List.of(), index.validAt(BASE + 30 * DAY, null));
+    }
+
+    @Test
+    void testWritesCoalesceIntoOneRebuildPerBucket() {
+        Queue<Runnable> rebuilds = new ArrayDeque<>();
+        ValidityIndex index = new ValidityIndex(rebuilds::add);
+
+        for (int i = 0; i < 100; i++) {
+            index.add(record("tr-" + i, "KYC", i, i + 10));
+        }
+
+        // One for the overall bucket and one for the credential type.
+        assertEquals(2, rebuilds.size());
+    }
+
+    @Test
+    void testRemovalAndReplacementOverrideStaleTree() {
+        Queue<Runnable> rebuilds = new ArrayDeque<>();
+        ValidityIndex index = new ValidityIndex(rebuilds::add);
+        TrustRecord first = record("tr-1", "KYC", 0, 10);
+        index.add(first);
+        index.add(record("tr-2", "KYC", 0, 10));
+        runAll(rebuilds);
+
+        index.remove(first);
+        index.add(record("tr-1", "KYC", 20, 30));
+        index.remove(record("tr-2", "KYC", 0, 10));
+
+        assertEquals(List.of(), index.validAt(BASE + 5 * DAY, null));
+        assertEquals(List.of("tr-1"), index.validAt(BASE + 25 * DAY, "KYC"));
+
+        runAll(rebuilds);
+        assertEquals(List.of(), index.validAt(BASE + 5 * DAY, null));
+        assertEquals(List.of("tr-1"), index.validAt(BASE + 25 * DAY, "KYC"));
+    }
+
+    @Test
+    void testWriteAfterRebuildSchedulesAnother() {
+        Queue<Runnable> rebuilds = new ArrayDeque<>();
+        ValidityIndex index = new ValidityIndex(rebuilds::add);
+        index.add(record("tr-1", "KYC", 0, 10));
+        runAll(rebuilds);
+
+        index.add(record("tr-2", "KYC", 0, 10));
+
+        assertEquals(2, rebuilds.size());
+        assertEquals(Set.of("tr-1", "tr-2"), new HashSet<>(index.validAt(BASE + DAY, null)));
+        runAll(rebuilds);
+        assertEquals(Set.of("tr-1", "tr-2"), new HashSet<>(index.validAt(BASE + DAY, null)));
+    }
+
+    @Test
+    void testMatchesBruteForceAcrossPartialRebuilds() {
+        Random random = new Random(42);
+        Queue<Runnable> rebuilds = new ArrayDeque<>();
+        ValidityIndex index = new ValidityIndex(rebuilds::add);
+        Map<String, TrustRecord> records = new HashMap<>();
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                String id = "tr-" + random.nextInt(300);
+                TrustRecord previous = records.remove(id);
+                if (previous != null) {
+                    index.remove(previous);
+                }
+                if (random.nextInt(5) > 0) {
+                    int from = random.nextInt(100);
+                    TrustRecord record = record(id, TYPES[random.nextInt(TYPES.length)], from, from + random.nextInt(40));
+                    records.put(id, record);
+                    index.add(record);
+                }
+            }
+            // Run only some of the scheduled rebuilds, so queries mix fresh trees, stale trees and deltas.
+            if (round % 3 != 0) {
+                runAll(rebuilds);
+            }
+            for (int q = 0; q < 20; q++) {
+                long at = BASE + random.nextInt(150) * DAY - DAY / 2 + random.nextInt(2) * DAY / 2;
+                String type = random.nextInt(4) == 0 ? null : TYPES[random.nextInt(TYPES.length)];
+                assertValidAt(index, records, at, type);
+            }
+        }
+    }
+
+    private static void assertValidAt(ValidityIndex index, Map<String, TrustRecord> records, long at, String type) {
+        Set<String> expected = new HashSet<>();
+        for (TrustRecord record : records.values()) {
+            if ((type == null || type.equals(record.getCredentialType())) && ValidityWindow.of(record).contains(at)) {
+                expected.add(record.getId());
+            }
+        }
+        List<String> actual = index.validAt(at, type);
+        assertEquals(expected.size(), actual.size(), "duplicate or missing IDs at " + at + " for " + type);
+        assertTrue(expected.containsAll(actual));
+    }
+
+    private static void runAll(Queue<Runnable> tasks) {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static TrustRecord record(String id, String credentialType, int fromDay, int untilDay) {
+        TrustRecord record = LedgerSnapshotterTest.trustRecord(id);
+        record.setCredentialType(credentialType);
+        record.setValidFromDt(Instant.ofEpochMilli(BASE + fromDay * DAY).toString());
+        record.setValidUntilDt(Instant.ofEpochMilli(BASE + untilDay * DAY).toString());
+        return record;
+    }
+}